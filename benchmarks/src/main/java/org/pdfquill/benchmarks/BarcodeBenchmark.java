@@ -0,0 +1,67 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.barcode.BarcodeCache;
+import org.pdfquill.barcode.BarcodeRenderMode;
+import org.pdfquill.barcode.BarcodeType;
+import org.pdfquill.paper.PaperType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a single barcode or QR code, from encoding to final PDF bytes, for each {@link BarcodeRenderMode}.
+ * {@code RASTER} is the historical 350x350 pixel path the other modes are compared against.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BarcodeBenchmark {
+
+    @Param({"RASTER", "MODULE_RASTER", "VECTOR"})
+    public BarcodeRenderMode renderMode;
+
+    @Param({"QRCODE", "CODE128"})
+    public BarcodeType barcodeType;
+
+    /**
+     * When set, every document shares one {@link BarcodeCache}, so the payload is encoded only once.
+     */
+    @Param({"false", "true"})
+    public boolean cached;
+
+    private BarcodeCache barcodeCache;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        barcodeCache = new BarcodeCache();
+    }
+
+    @Benchmark
+    public byte[] printBarcode() {
+        PDFQuill.Builder builder = PDFQuill.builder()
+                .withPaperType(PaperType.THERMAL_80MM)
+                .withBarcodeRenderMode(renderMode);
+        if (cached) {
+            builder.withBarcodeCache(barcodeCache);
+        }
+        PDFQuill quill = builder.build();
+        String payload = barcodeType == BarcodeType.QRCODE ? Fixtures.QR_PAYLOAD : Fixtures.BARCODE_PAYLOAD;
+        quill.printBarcode(payload, barcodeType);
+        return quill.getPDFBytes();
+    }
+}
@@ -0,0 +1,70 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pdfquill.DocumentSpec;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.batch.BatchOrder;
+import org.pdfquill.batch.BatchRenderer;
+import org.pdfquill.batch.BatchReport;
+import org.pdfquill.paper.PaperType;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Receipts per second rendered through {@link BatchRenderer} for growing worker counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchBenchmark {
+    private static final int BATCH_SIZE = 200;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"INPUT", "COMPLETION"})
+    public BatchOrder order;
+
+    private ExecutorService executor;
+    private BatchRenderer renderer;
+
+    @Setup
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(threads);
+        renderer = BatchRenderer.builder(PDFQuill.builder().withPaperType(PaperType.THERMAL_80MM).buildTemplate(), executor)
+                .withMaxInFlight(threads * 2)
+                .withOrder(order)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public BatchReport receipts(Blackhole blackhole) throws InterruptedException {
+        DocumentSpec receipt = quill -> Fixtures.printReceipt(quill, 20);
+        return renderer.render(Stream.generate(() -> receipt).limit(BATCH_SIZE), blackhole::consume);
+    }
+}
@@ -0,0 +1,57 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.PDFQuillTemplate;
+import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.font.FontSettings;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-document configuration cost: resolving a {@link PDFQuill.Builder} every time versus creating documents from a
+ * prebuilt {@link PDFQuillTemplate}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstructionBenchmark {
+
+    private PDFQuillTemplate template;
+
+    @Setup
+    public void setUp() {
+        template = configure(PDFQuill.builder()).buildTemplate();
+    }
+
+    private static PDFQuill.Builder configure(PDFQuill.Builder builder) {
+        FontSettings fontSettings = new FontSettings();
+        fontSettings.setFontSize(9);
+        return builder
+                .withPaperType(PaperType.THERMAL_80MM)
+                .withFontSettings(fontSettings)
+                .withMargins(2f, 2f, 8f, 2f);
+    }
+
+    @Benchmark
+    public PDFQuill builder() {
+        return configure(PDFQuill.builder()).build();
+    }
+
+    @Benchmark
+    public PDFQuill template() {
+        return template.newDocument();
+    }
+}
@@ -0,0 +1,75 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.PageLayout;
+import org.pdfquill.settings.font.FontType;
+import org.pdfquill.writer.PDFWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Isolates {@link PDFWriter#saveAndGetBytes()} and {@link PDFWriter#saveTo} from content generation. The writer is populated in an
+ * invocation-level setup, so only finalization (cropping, blank page handling and serialization) is timed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FinalizationBenchmark {
+
+    @Param({"THERMAL_80MM", "A4"})
+    public PaperType paperType;
+
+    @Param({"300"})
+    public int lines;
+
+    private PDFWriter writer;
+
+    @Setup(Level.Invocation)
+    public void populate() throws IOException {
+        this.writer = new PDFWriter(new PageLayout(paperType));
+        for (int i = 0; i < lines; i++) {
+            writer.writeLine("Line " + i + " of the finalization benchmark", FontType.DEFAULT);
+        }
+    }
+
+    @Benchmark
+    public byte[] saveAndGetBytes() throws IOException {
+        return writer.saveAndGetBytes();
+    }
+
+    /**
+     * Streams the document into a sink that discards it, measuring serialization without a full-document buffer.
+     */
+    @Benchmark
+    public void saveTo(Blackhole blackhole) throws IOException {
+        writer.saveTo(new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(len);
+            }
+        });
+    }
+}
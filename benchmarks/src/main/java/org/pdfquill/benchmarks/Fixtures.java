@@ -0,0 +1,76 @@
+package org.pdfquill.benchmarks;
+
+import org.pdfquill.PDFQuill;
+import org.pdfquill.barcode.BarcodeType;
+import org.pdfquill.settings.font.FontType;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Shared document content used by the benchmarks so every scenario renders comparable payloads.
+ */
+final class Fixtures {
+    static final String PARAGRAPH = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod tempor "
+            + "incididunt ut labore et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud exercitation "
+            + "ullamco laboris nisi ut aliquip ex ea commodo consequat. Duis aute irure dolor in reprehenderit in "
+            + "voluptate velit esse cillum dolore eu fugiat nulla pariatur.";
+
+    static final String QR_PAYLOAD = "https://example.com/loyalty?store=0042&receipt=000123456789";
+    static final String BARCODE_PAYLOAD = "7891234567895";
+
+    private Fixtures() {
+        // utility class
+    }
+
+    /**
+     * Prints a typical point-of-sale receipt: header, item lines, totals, barcode, QR code and cut.
+     */
+    static void printReceipt(PDFQuill quill, int items) {
+        quill.printLine("ACME SUPERMARKET LTDA", FontType.BOLD);
+        quill.printLine("Av. Paulista, 1000 - Bela Vista - Sao Paulo/SP");
+        quill.printLine("CNPJ 12.345.678/0001-90  IE 123.456.789.110");
+        quill.skipLine();
+        for (int i = 1; i <= items; i++) {
+            quill.printLine(String.format("%03d 7891000%06d PRODUCT DESCRIPTION %d  1 UN x 12,90  12,90", i, i, i));
+        }
+        quill.skipLine();
+        quill.printLine("TOTAL R$ " + (items * 12.90), FontType.BOLD);
+        quill.printLine("Paid with credit card **** **** **** 4242");
+        quill.printBarcode(BARCODE_PAYLOAD, BarcodeType.CODE128);
+        quill.printBarcode(QR_PAYLOAD, BarcodeType.QRCODE);
+        quill.printLine("Thank you for your purchase!");
+        quill.cutSignal();
+    }
+
+    /**
+     * Prints {@code paragraphs} wrapped paragraphs separated by blank lines, spanning several A4 pages.
+     */
+    static void printReport(PDFQuill quill, int paragraphs) {
+        quill.printLine("MONTHLY STATEMENT", FontType.BOLD);
+        for (int i = 0; i < paragraphs; i++) {
+            quill.printLine("Section " + (i + 1), FontType.BOLD);
+            quill.printLine(PARAGRAPH);
+            quill.skipLine();
+        }
+    }
+
+    /**
+     * Creates a 200x60 RGB company logo; each call returns a new image with identical pixels.
+     */
+    static BufferedImage createLogo() {
+        BufferedImage logo = new BufferedImage(200, 60, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = logo.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, 200, 60);
+            graphics.setColor(new Color(0x1F4E79));
+            graphics.fillOval(8, 8, 44, 44);
+            graphics.drawString("ACME SUPERMARKET", 64, 36);
+        } finally {
+            graphics.dispose();
+        }
+        return logo;
+    }
+}
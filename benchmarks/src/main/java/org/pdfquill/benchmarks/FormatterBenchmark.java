@@ -0,0 +1,59 @@
+package org.pdfquill.benchmarks;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.formatter.ContentFormatter;
+import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.PageLayout;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Word wrapping cost of {@link ContentFormatter#formatTextToLines} for receipt and A4 line widths.
+ * Courier takes the fixed-pitch (character counting) engine; Helvetica takes the measured-width engine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatterBenchmark {
+
+    @Param({"THERMAL_58MM", "A4"})
+    public PaperType paperType;
+
+    @Param({"COURIER", "HELVETICA"})
+    public String font;
+
+    private PDType1Font pdFont;
+    private float maxWidth;
+
+    @Setup
+    public void setUp() {
+        this.pdFont = "COURIER".equals(font) ? PDType1Font.COURIER : PDType1Font.HELVETICA;
+        this.maxWidth = new PageLayout(paperType).getMaxLineWidth();
+    }
+
+    @Benchmark
+    public List<String> formatTextToLines() throws IOException {
+        return ContentFormatter.formatTextToLines(Fixtures.PARAGRAPH, pdFont, 12, maxWidth, false);
+    }
+
+    @Benchmark
+    public int findWrapIndex() throws IOException {
+        return ContentFormatter.findWrapIndex(Fixtures.PARAGRAPH, pdFont, 12, maxWidth);
+    }
+}
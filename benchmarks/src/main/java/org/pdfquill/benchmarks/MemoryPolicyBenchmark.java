@@ -0,0 +1,110 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.MemoryPolicy;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Large A4 exports under each {@link MemoryPolicy}, streamed to a discarding sink. Besides the timing, each fork prints
+ * its peak resident set size ({@code VmHWM}, Linux only) to the run log, which is what a fixed container budget caps.
+ * Each policy runs in its own fork with the same heap limit so the peaks are comparable.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx512m"})
+public class MemoryPolicyBenchmark {
+
+    public enum Policy {
+        HEAP_ONLY, MIXED_16MB, TEMP_FILE;
+
+        MemoryPolicy toMemoryPolicy() {
+            switch (this) {
+                case MIXED_16MB:
+                    return MemoryPolicy.mixed(16L * 1024 * 1024);
+                case TEMP_FILE:
+                    return MemoryPolicy.tempFile();
+                default:
+                    return MemoryPolicy.heapOnly();
+            }
+        }
+    }
+
+    @Param({"HEAP_ONLY", "MIXED_16MB", "TEMP_FILE"})
+    public Policy policy;
+
+    /**
+     * Number of paragraphs; 8000 paragraphs make a document of roughly 1000 A4 pages.
+     */
+    @Param({"8000"})
+    public int paragraphs;
+
+    @Benchmark
+    public void export(Blackhole blackhole) throws IOException {
+        PDFQuill quill = PDFQuill.builder()
+                .withPaperType(PaperType.A4)
+                .withMemoryPolicy(policy.toMemoryPolicy())
+                .build();
+        Fixtures.printReport(quill, paragraphs);
+        quill.writeTo(new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(len);
+            }
+        });
+    }
+
+    /**
+     * Prints the high-water mark of the fork; JMH aux counters are summed per iteration, so they cannot carry a peak.
+     */
+    @TearDown(Level.Trial)
+    public void reportPeakRss() throws IOException {
+        long peakRssKb = readPeakRssKb();
+        if (peakRssKb >= 0) {
+            System.out.printf("%n# Peak RSS for %s: %d MB%n", policy, peakRssKb / 1024);
+        }
+    }
+
+    private static long readPeakRssKb() {
+        List<String> status;
+        try {
+            status = Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.US_ASCII);
+        } catch (IOException e) {
+            return -1;
+        }
+        for (String line : status) {
+            if (line.startsWith("VmHWM:")) {
+                return Long.parseLong(line.replaceAll("[^0-9]", ""));
+            }
+        }
+        return -1;
+    }
+}
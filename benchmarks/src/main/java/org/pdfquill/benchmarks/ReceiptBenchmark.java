@@ -0,0 +1,43 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.paper.PaperType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end thermal receipt rendering: builder, text, barcodes, cut signal and final PDF bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReceiptBenchmark {
+
+    @Param({"THERMAL_58MM", "THERMAL_80MM"})
+    public PaperType paperType;
+
+    @Param({"20"})
+    public int items;
+
+    @Benchmark
+    public byte[] receipt() {
+        PDFQuill quill = PDFQuill.builder()
+                .withPaperType(paperType)
+                .build();
+        Fixtures.printReceipt(quill, items);
+        return quill.getPDFBytes();
+    }
+}
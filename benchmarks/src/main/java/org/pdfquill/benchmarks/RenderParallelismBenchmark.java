@@ -0,0 +1,59 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.PDFQuillTemplate;
+import org.pdfquill.paper.PaperType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to produce a long A4 report when page content streams are encoded and compressed on 1 to N fork/join
+ * threads. Layout and document assembly stay serial, so speedup is bounded by their share of the total;
+ * results are only meaningful on a machine with at least as many cores as the largest parallelism.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class RenderParallelismBenchmark {
+
+    @Param({"1", "2", "4", "8"})
+    public int parallelism;
+
+    /**
+     * Number of paragraphs; roughly 8 paragraphs fill one A4 page with the default layout. 64 paragraphs are
+     * about the smallest document whose pages are handed to the encoding pool at all.
+     */
+    @Param({"64", "800", "8000"})
+    public int paragraphs;
+
+    private PDFQuillTemplate template;
+
+    @Setup
+    public void setUp() {
+        template = PDFQuill.builder()
+                .withPaperType(PaperType.A4)
+                .withRenderParallelism(parallelism)
+                .buildTemplate();
+    }
+
+    @Benchmark
+    public byte[] report() {
+        PDFQuill quill = template.newDocument();
+        Fixtures.printReport(quill, paragraphs);
+        return quill.getPDFBytes();
+    }
+}
@@ -0,0 +1,43 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.paper.PaperType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multi-page A4 reports made of wrapped paragraphs, exercising pagination and blank page handling.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportBenchmark {
+
+    /**
+     * Number of paragraphs; roughly 8 paragraphs fill one A4 page with the default layout.
+     */
+    @Param({"40", "400"})
+    public int paragraphs;
+
+    @Benchmark
+    public byte[] report() {
+        PDFQuill quill = PDFQuill.builder()
+                .withPaperType(PaperType.A4)
+                .build();
+        Fixtures.printReport(quill, paragraphs);
+        return quill.getPDFBytes();
+    }
+}
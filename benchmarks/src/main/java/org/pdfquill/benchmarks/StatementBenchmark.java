@@ -0,0 +1,44 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.paper.PaperType;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A4 statements that repeat the company logo at the top of every page, the case image deduplication targets.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatementBenchmark {
+
+    @Param({"20", "200"})
+    public int pages;
+
+    @Benchmark
+    public byte[] statement() throws IOException {
+        PDFQuill quill = PDFQuill.builder()
+                .withPaperType(PaperType.A4)
+                .build();
+        for (int page = 0; page < pages; page++) {
+            quill.printImage(Fixtures.createLogo());
+            Fixtures.printReport(quill, 6);
+        }
+        return quill.getPDFBytes();
+    }
+}
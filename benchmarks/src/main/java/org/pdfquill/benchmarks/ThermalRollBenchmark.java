@@ -0,0 +1,59 @@
+package org.pdfquill.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.paper.PaperType;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Long continuous-feed kitchen rolls (many consecutive receipts on one thermal document), with and without
+ * incremental page flushing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ThermalRollBenchmark {
+
+    @Param({"500"})
+    public int receipts;
+
+    @Param({"false", "true"})
+    public boolean incrementalPageFlush;
+
+    @Benchmark
+    public void roll(Blackhole blackhole) {
+        PDFQuill quill = PDFQuill.builder()
+                .withPaperType(PaperType.THERMAL_80MM)
+                .withIncrementalPageFlush(incrementalPageFlush)
+                .build();
+        for (int i = 0; i < receipts; i++) {
+            Fixtures.printReceipt(quill, 10);
+        }
+        quill.writeTo(new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(len);
+            }
+        });
+    }
+}
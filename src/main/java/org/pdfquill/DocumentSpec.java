@@ -0,0 +1,19 @@
+package org.pdfquill;
+
+import java.io.IOException;
+
+/**
+ * Describes the content of one document. Implementations print onto the supplied, freshly created
+ * {@link PDFQuill}; they must not finalise it or keep a reference to it.
+ */
+@FunctionalInterface
+public interface DocumentSpec {
+
+    /**
+     * Prints this document's content.
+     *
+     * @param quill empty printer created from a template
+     * @throws IOException when content such as an image cannot be read
+     */
+    void render(PDFQuill quill) throws IOException;
+}
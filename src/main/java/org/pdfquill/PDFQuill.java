@@ -1,6 +1,9 @@
 package org.pdfquill;
 
+import com.google.zxing.common.BitMatrix;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.pdfquill.barcode.BarcodeCache;
+import org.pdfquill.barcode.BarcodeRenderMode;
 import org.pdfquill.barcode.BarcodeType;
 import org.pdfquill.exceptions.BarcodeGenerationException;
 import org.pdfquill.exceptions.PDFExportException;
@@ -10,28 +13,43 @@ import org.pdfquill.measurements.MeasurementUtils;
 import org.pdfquill.paper.PaperType;
 import org.pdfquill.settings.font.FontSettings;
 import org.pdfquill.settings.font.FontType;
+import org.pdfquill.settings.MemoryPolicy;
 import org.pdfquill.settings.PageLayout;
 import org.pdfquill.settings.permissions.PermissionSettings;
 import org.pdfquill.writer.PDFWriter;
 import org.pdfquill.writer.TextBuilder;
 
-import javax.xml.bind.DatatypeConverter;
 import java.awt.image.BufferedImage;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 
 /**
  * Facade responsible for producing print-ready PDFs using a fluent API.
  */
 public class PDFQuill {
-    private final PageLayout pageLayout;
+    private PageLayout pageLayout;
+    private boolean layoutShared;
     private final PermissionSettings permissionSettings;
     private final PDFWriter pdfWriter;
+    private final BarcodeRenderMode barcodeRenderMode;
+    private final BarcodeCache barcodeCache;
     private byte[] pdf;
     private File pdfFile;
 
@@ -39,40 +57,17 @@ public class PDFQuill {
      * Creates a printer with default settings (A4 paper, Courier font, default permissions).
      */
     public PDFQuill() {
-        this(new Builder());
+        this(new Builder().buildTemplate());
     }
 
-    private PDFQuill(Builder builder) {
-        PermissionSettings basePermissionSettings = builder.permissionSettings != null ? builder.permissionSettings : new PermissionSettings();
-        this.permissionSettings = copyPermissionSettings(basePermissionSettings);
-
-        PageLayout layout = builder.pageLayout != null ? new PageLayout(builder.pageLayout) : createDefaultPageLayout(builder.paperType);
-
-        if (builder.paperType != null) {
-            layout.setPaperType(builder.paperType);
-        }
-        if (builder.hasCustomMargins()) {
-            float marginLeft = builder.marginLeft != null ? builder.marginLeft : layout.getMarginLeft();
-            float marginRight = builder.marginRight != null ? builder.marginRight : layout.getMarginRight();
-            float marginTop = builder.marginTop != null ? builder.marginTop : layout.getMarginTop();
-            float marginBottom = builder.marginBottom != null ? builder.marginBottom : layout.getMarginBottom();
-            layout.setMargins(marginLeft, marginRight, marginTop, marginBottom);
-        }
-        if (builder.fontSettings != null) {
-            layout.setFontSettings(copyFontSettings(builder.fontSettings));
-        }
-        if (builder.fontSettingsCustomizer != null) {
-            builder.fontSettingsCustomizer.accept(layout.getFontSettings());
-            layout.recalculate();
-        }
-
-        this.pageLayout = layout;
-
-        if (builder.permissionSettingsCustomizer != null) {
-            builder.permissionSettingsCustomizer.accept(this.permissionSettings);
-        }
-
-        this.pdfWriter = new PDFWriter(this.pageLayout);
+    PDFQuill(PDFQuillTemplate template) {
+        this.pageLayout = template.getPageLayout();
+        this.layoutShared = true;
+        this.permissionSettings = template.getPermissionSettings();
+        this.barcodeRenderMode = template.getBarcodeRenderMode();
+        this.barcodeCache = template.getBarcodeCache();
+        this.pdfWriter = new PDFWriter(this.pageLayout, template.getMemoryPolicy(), template.isIncrementalPageFlush(),
+                template.getRenderParallelism());
     }
 
     /**
@@ -82,17 +77,18 @@ public class PDFQuill {
         return new Builder();
     }
 
-    private static PageLayout createDefaultPageLayout(PaperType paperType) {
-        PaperType resolvedPaperType = paperType != null ? paperType : PaperType.A4;
-        return new PageLayout(resolvedPaperType);
-    }
-
     /**
      * Replaces the active font settings on the underlying layout.
      *
      * @param fontSettings new font configuration to apply
      */
     public void updateFontSettings(FontSettings fontSettings) {
+        if (this.layoutShared) {
+            // the layout belongs to the template; take a private copy before changing it
+            this.pageLayout = new PageLayout(this.pageLayout);
+            this.layoutShared = false;
+            this.pdfWriter.setPageLayout(this.pageLayout);
+        }
         this.pageLayout.setFontSettings(fontSettings);
     }
 
@@ -103,7 +99,46 @@ public class PDFQuill {
      * @throws PDFGenerationException when writing the PDF fails
      */
     public String getBase64PDFBytes() throws PDFGenerationException {
-        return DatatypeConverter.printBase64Binary(resolvePdfBytes());
+        return Base64.getEncoder().encodeToString(resolvePdfBytes());
+    }
+
+    /**
+     * Finalises the document and streams it into {@code out} as Base64 text, encoding while the PDF is being
+     * saved so neither the PDF bytes nor the encoded string are held in memory. The stream is flushed but
+     * left open, and the same retention rules as {@link #writeTo(OutputStream)} apply.
+     *
+     * @param out destination stream receiving ASCII Base64 characters; must not be {@code null}
+     * @throws PDFExportException when writing the PDF fails
+     */
+    public void writeBase64To(OutputStream out) throws PDFExportException {
+        if (out == null) {
+            throw new IllegalArgumentException("out cannot be null");
+        }
+
+        try {
+            if (this.pdfWriter.isClosed()) {
+                byte[] encoded = Base64.getEncoder().encode(resolvePdfBytes());
+                out.write(encoded);
+                out.flush();
+            } else {
+                this.pdfWriter.saveBase64To(out);
+            }
+        } catch (IOException e) {
+            throw new PDFExportException("Failed to write Base64 PDF to output stream", e);
+        }
+    }
+
+    /**
+     * Character-based variant of {@link #writeBase64To(OutputStream)}. The writer is flushed but left open.
+     *
+     * @param writer destination writer; must not be {@code null}
+     * @throws PDFExportException when writing the PDF fails
+     */
+    public void writeBase64To(Writer writer) throws PDFExportException {
+        if (writer == null) {
+            throw new IllegalArgumentException("writer cannot be null");
+        }
+        writeBase64To(new AsciiWriterOutputStream(writer));
     }
 
     /**
@@ -119,6 +154,39 @@ public class PDFQuill {
         return copy;
     }
 
+    /**
+     * Returns a read-only view over the generated PDF without copying it. Each call returns an independent
+     * buffer positioned at the start of the document.
+     *
+     * @return read-only buffer holding the PDF bytes
+     * @throws PDFGenerationException when writing the PDF fails
+     */
+    public ByteBuffer getPDFBuffer() throws PDFGenerationException {
+        return ByteBuffer.wrap(resolvePdfBytes()).asReadOnlyBuffer();
+    }
+
+    /**
+     * Writes the generated PDF into {@code out} straight from the cached bytes, without copying them.
+     * Unlike {@link #writeTo(OutputStream)}, the document is finalised in memory first and stays
+     * available to later calls. The stream is flushed but left open.
+     *
+     * @param out destination stream; must not be {@code null}
+     * @throws PDFExportException when writing the PDF fails
+     */
+    public void transferTo(OutputStream out) throws PDFExportException {
+        if (out == null) {
+            throw new IllegalArgumentException("out cannot be null");
+        }
+
+        byte[] bytes = resolvePdfBytes();
+        try {
+            out.write(bytes);
+            out.flush();
+        } catch (IOException e) {
+            throw new PDFExportException("Failed to write PDF to output stream", e);
+        }
+    }
+
     /**
      * Returns the generated PDF written to a temporary {@link File}.
      *
@@ -141,7 +209,17 @@ public class PDFQuill {
     }
 
     /**
-     * Writes the generated PDF into the provided path.
+     * Writes the generated PDF into the provided path. The PDF is first written to a temporary file next to
+     * {@code destination}, which is then moved onto it atomically where the file system allows, so a failed
+     * write never leaves a truncated file at {@code destination}; the temporary file is deleted on failure.
+     * A new file gets the default permissions of its directory; an existing file keeps its POSIX permissions.
+     *
+     * <p>Unless the PDF was already finalised, it is streamed to the file rather than kept in memory, and the
+     * byte accessors, such as {@link #getPDFBytes()}, read it back from {@code destination} on their first call
+     * afterwards. Should the file be changed before then, they return its new content; should it be deleted,
+     * they fail with {@link PDFGenerationException}. Call {@link #getPDFBytes()} before writing to keep the
+     * bytes in memory instead. When the write fails after finalising has started, the content is lost and the
+     * byte accessors fail with {@link PDFGenerationException}.</p>
      *
      * @param destination target path for the PDF file
      * @return the same path provided for convenience
@@ -155,18 +233,143 @@ public class PDFQuill {
             throw new IllegalArgumentException("destination must be a file path");
         }
 
-        byte[] pdfBytes = resolvePdfBytes();
+        byte[] pdfBytes = this.pdfWriter.isClosed() ? resolvePdfBytes() : null;
+        Path tempFile = null;
         try {
-            Path parent = destination.getParent();
+            Path target = destination.toAbsolutePath();
+            Path parent = target.getParent();
             if (parent != null && !Files.exists(parent)) {
                 Files.createDirectories(parent);
             }
-            Files.write(destination, pdfBytes);
+            tempFile = siblingTempFile(target);
+            try (OutputStream out = Files.newOutputStream(tempFile, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE)) {
+                if (pdfBytes != null) {
+                    out.write(pdfBytes);
+                } else {
+                    this.pdfWriter.saveTo(out);
+                }
+            }
+            copyPermissions(target, tempFile);
+            moveIntoPlace(tempFile, target);
+            tempFile = null;
             this.pdfFile = destination.toFile();
             return destination;
         } catch (IOException e) {
             throw new PDFExportException("Failed to write PDF to destination", e);
+        } finally {
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException e) {
+                    // the write already failed; a leftover temporary file is not worth masking that
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a path next to {@code target} that does not exist yet; the caller creates the file, so it gets
+     * the default permissions rather than the owner-only ones of {@link Files#createTempFile}.
+     */
+    private static Path siblingTempFile(Path target) {
+        Path candidate;
+        do {
+            candidate = target.resolveSibling("." + target.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+        } while (Files.exists(candidate));
+        return candidate;
+    }
+
+    private static void copyPermissions(Path source, Path target) throws IOException {
+        if (!Files.exists(source)) {
+            return;
+        }
+        try {
+            Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+        } catch (UnsupportedOperationException e) {
+            // not a POSIX file system; the temporary file keeps the directory's defaults
+        }
+    }
+
+    private static void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Finalises the document and streams it into {@code out} without building the whole PDF in memory.
+     * The stream is flushed but left open. The streamed bytes are not retained: unless the document was
+     * already finalised through {@link #getPDFBytes()} or written with {@link #writePDF(Path)}, the
+     * byte accessors fail with {@link PDFGenerationException} afterwards.
+     *
+     * @param out destination stream; must not be {@code null}
+     * @throws PDFExportException when writing the PDF fails
+     */
+    public void writeTo(OutputStream out) throws PDFExportException {
+        if (out == null) {
+            throw new IllegalArgumentException("out cannot be null");
+        }
+
+        try {
+            if (this.pdfWriter.isClosed()) {
+                out.write(resolvePdfBytes());
+                out.flush();
+            } else {
+                this.pdfWriter.saveTo(out);
+            }
+        } catch (IOException e) {
+            throw new PDFExportException("Failed to write PDF to output stream", e);
+        }
+    }
+
+    /**
+     * Finalises the document and streams it into a blocking {@code channel}, with the same retention rules
+     * as {@link #writeTo(OutputStream)}. The channel is left open.
+     *
+     * @param channel destination channel; must not be {@code null}
+     * @throws PDFExportException when writing the PDF fails
+     */
+    public void writeTo(WritableByteChannel channel) throws PDFExportException {
+        if (channel == null) {
+            throw new IllegalArgumentException("channel cannot be null");
+        }
+        writeTo(Channels.newOutputStream(channel));
+    }
+
+    /**
+     * Finalises the document on {@code executor} and completes with a copy of its bytes, as
+     * {@link #getPDFBytes()} would. This printer must not be used until the future completes.
+     *
+     * @param executor executor running the finalisation
+     * @return future of the PDF bytes
+     */
+    public CompletableFuture<byte[]> renderAsync(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        return CompletableFuture.supplyAsync(this::getPDFBytes, executor);
+    }
+
+    /**
+     * Finalises the document on {@code executor} and streams it into {@code sink}, as
+     * {@link #writeTo(OutputStream)} would. This printer must not be used until the future completes.
+     *
+     * @param sink     destination stream; left open
+     * @param executor executor running the finalisation and the write
+     * @return future completing once the whole document has been written
+     */
+    public CompletableFuture<Void> renderAsync(OutputStream sink, Executor executor) {
+        if (sink == null) {
+            throw new IllegalArgumentException("sink cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
         }
+        return CompletableFuture.runAsync(() -> writeTo(sink), executor);
     }
 
     /**
@@ -178,8 +381,37 @@ public class PDFQuill {
         resolvePdfBytes();
     }
 
+    /**
+     * Finalises the document and hands over the cached bytes without the defensive copy made by
+     * {@link #getPDFBytes()}; only for callers that discard this printer afterwards.
+     */
+    byte[] takePDFBytes() throws PDFGenerationException {
+        return resolvePdfBytes();
+    }
+
+    /**
+     * Releases the document without saving it, e.g. after content generation failed.
+     */
+    void discard() {
+        try {
+            this.pdfWriter.close();
+        } catch (IOException e) {
+            // nothing was saved; the scratch storage is released regardless
+        }
+    }
+
     private byte[] resolvePdfBytes() throws PDFGenerationException {
         if (this.pdfWriter.isClosed()) {
+            if (this.pdf == null && this.pdfFile != null && this.pdfFile.exists()) {
+                try {
+                    this.pdf = Files.readAllBytes(this.pdfFile.toPath());
+                } catch (IOException e) {
+                    throw new PDFGenerationException("Failed to read PDF from " + this.pdfFile, e);
+                }
+            }
+            if (this.pdf == null && this.pdfFile != null) {
+                throw new PDFGenerationException("PDF written to " + this.pdfFile + " no longer exists");
+            }
             if (this.pdf == null) {
                 throw new PDFGenerationException("PDF content is not available after closure");
             }
@@ -315,25 +547,43 @@ public class PDFQuill {
      *
      * @param code        payload to encode
      * @param barcodeType symbology to render
-     * @param height      desired height in pixels (ZXing rendering space)
-     * @param width       desired width in pixels (ZXing rendering space)
+     * @param height      desired height in pixels (ZXing rendering space); ignored by the module-based render modes
+     * @param width       desired width in pixels (ZXing rendering space); ignored by the module-based render modes
      * @return fluent reference to this instance
      * @throws BarcodeGenerationException when barcode generation fails
      */
     public PDFQuill printBarcode(String code, BarcodeType barcodeType, int height, int width) throws BarcodeGenerationException {
         try {
-            BufferedImage image = ContentFormatter.createBarcodeImage(code, barcodeType, height, width);
-
             float imageHeight = BarcodeType.QRCODE.equals(barcodeType) ? MeasurementUtils.mmToPt(48f) : MeasurementUtils.mmToPt(12f);
             float imageWidth = BarcodeType.QRCODE.equals(barcodeType) ? MeasurementUtils.mmToPt(48f) : MeasurementUtils.mmToPt(80f);
 
-            this.pdfWriter.writeImage(image, imageWidth, imageHeight);
+            if (this.barcodeRenderMode == BarcodeRenderMode.VECTOR) {
+                BitMatrix matrix = encodeBarcode(code, barcodeType, 0, 0);
+                this.pdfWriter.writeBarcode(matrix, imageWidth, imageHeight);
+            } else if (this.barcodeRenderMode == BarcodeRenderMode.MODULE_RASTER) {
+                BitMatrix matrix = encodeBarcode(code, barcodeType, 0, 0);
+                BufferedImage image = ContentFormatter.createBinaryImage(matrix, matrix.getWidth(), matrix.getHeight());
+                this.pdfWriter.writeModuleImage(image, imageWidth, imageHeight);
+            } else {
+                int pixelHeight = height == 0 ? ContentFormatter.DEFAULT_BARCODE_PIXELS : height;
+                int pixelWidth = width == 0 ? ContentFormatter.DEFAULT_BARCODE_PIXELS : width;
+                BitMatrix matrix = encodeBarcode(code, barcodeType, pixelHeight, pixelWidth);
+                BufferedImage image = ContentFormatter.createBinaryImage(matrix, pixelWidth, pixelHeight);
+                this.pdfWriter.writeImage(image, imageWidth, imageHeight);
+            }
         } catch (IOException e) {
             throw new BarcodeGenerationException("Failed to write barcode to the PDF", e);
         }
         return this;
     }
 
+    private BitMatrix encodeBarcode(String code, BarcodeType barcodeType, int height, int width) throws BarcodeGenerationException {
+        if (this.barcodeCache != null) {
+            return this.barcodeCache.getMatrix(code, barcodeType, height, width);
+        }
+        return ContentFormatter.createBarcodeMatrix(code, barcodeType, height, width);
+    }
+
     /**
      * Prints a cut signal, typically used to indicate receipt boundaries.
      *
@@ -349,6 +599,26 @@ public class PDFQuill {
         return this;
     }
 
+    /**
+     * Returns how many printed images (including raster barcodes) reused pixels already embedded in this
+     * document instead of being embedded again.
+     *
+     * @return number of deduplicated images
+     */
+    public int getReusedImageCount() {
+        return this.pdfWriter.getReusedImageCount();
+    }
+
+    /**
+     * Returns how many font, fill colour and text position operators were left out of this document's content
+     * streams because the state they set was already in effect.
+     *
+     * @return number of elided operators
+     */
+    public long getElidedOperatorCount() {
+        return this.pdfWriter.getElidedOperatorCount();
+    }
+
     private static PermissionSettings copyPermissionSettings(PermissionSettings source) {
         PermissionSettings copy = new PermissionSettings();
         copy.setCanPrint(source.isCanPrint());
@@ -367,6 +637,46 @@ public class PDFQuill {
         return copy;
     }
 
+    /**
+     * Adapts a {@link Writer} to the ASCII byte output of the Base64 encoder. Closing only flushes the writer.
+     */
+    private static final class AsciiWriterOutputStream extends OutputStream {
+        private final Writer writer;
+        private final char[] chars = new char[8192];
+
+        AsciiWriterOutputStream(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.writer.write(b & 0x7F);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int chunk = Math.min(len, this.chars.length);
+                for (int i = 0; i < chunk; i++) {
+                    this.chars[i] = (char) (b[off + i] & 0x7F);
+                }
+                this.writer.write(this.chars, 0, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            this.writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+
     /**
      * Builder for configuring {@link PDFQuill} instances.
      */
@@ -382,6 +692,11 @@ public class PDFQuill {
         private Float marginRight;
         private Float marginTop;
         private Float marginBottom;
+        private BarcodeRenderMode barcodeRenderMode = BarcodeRenderMode.RASTER;
+        private BarcodeCache barcodeCache;
+        private MemoryPolicy memoryPolicy;
+        private boolean incrementalPageFlush;
+        private int renderParallelism = 1;
 
         /**
          * Sets the paper type to be used by the generated document.
@@ -430,6 +745,83 @@ public class PDFQuill {
             return this;
         }
 
+        /**
+         * Selects how barcodes and QR codes are drawn. Defaults to {@link BarcodeRenderMode#RASTER}.
+         *
+         * @param barcodeRenderMode render strategy; must not be {@code null}
+         * @return this builder
+         */
+        public Builder withBarcodeRenderMode(BarcodeRenderMode barcodeRenderMode) {
+            if (barcodeRenderMode == null) {
+                throw new IllegalArgumentException("barcodeRenderMode cannot be null");
+            }
+            this.barcodeRenderMode = barcodeRenderMode;
+            return this;
+        }
+
+        /**
+         * Reuses encoded barcodes from the supplied cache instead of encoding every payload again.
+         * The same cache may be shared by several printers, including ones used from other threads.
+         *
+         * @param barcodeCache cache to consult; must not be {@code null}
+         * @return this builder
+         */
+        public Builder withBarcodeCache(BarcodeCache barcodeCache) {
+            if (barcodeCache == null) {
+                throw new IllegalArgumentException("barcodeCache cannot be null");
+            }
+            this.barcodeCache = barcodeCache;
+            return this;
+        }
+
+        /**
+         * Selects where the document keeps its content until it is saved. Defaults to
+         * {@link MemoryPolicy#heapOnly()} (or {@link MemoryPolicy#tempFile()} with incremental page flushing);
+         * use a mixed or temp-file policy to run very large documents within a fixed heap budget.
+         *
+         * @param memoryPolicy storage policy; must not be {@code null}
+         * @return this builder
+         */
+        public Builder withMemoryPolicy(MemoryPolicy memoryPolicy) {
+            if (memoryPolicy == null) {
+                throw new IllegalArgumentException("memoryPolicy cannot be null");
+            }
+            this.memoryPolicy = memoryPolicy;
+            return this;
+        }
+
+        /**
+         * Seals every page as soon as the next one starts, for long continuous-feed rolls. A sealed page is
+         * rendered on its own and, on thermal paper, cropped to its own written height rather than to the
+         * height written on the last page. Unless a memory policy is chosen explicitly, enabling this also
+         * selects {@link MemoryPolicy#tempFile()}.
+         *
+         * @param incrementalPageFlush flag indicating whether finished pages are sealed immediately
+         * @return this builder
+         */
+        public Builder withIncrementalPageFlush(boolean incrementalPageFlush) {
+            this.incrementalPageFlush = incrementalPageFlush;
+            return this;
+        }
+
+        /**
+         * Encodes and compresses the content streams of finished pages on up to {@code renderParallelism}
+         * threads of a fork/join pool, in batches of a few pages per thread, which pays off for documents of
+         * many pages. Layout and the assembly of the document stay on the calling thread and the output does
+         * not depend on this setting. Defaults to {@code 1}; ignored for pages sealed by incremental page
+         * flushing.
+         *
+         * @param renderParallelism maximum number of encoding threads; must be positive
+         * @return this builder
+         */
+        public Builder withRenderParallelism(int renderParallelism) {
+            if (renderParallelism <= 0) {
+                throw new IllegalArgumentException("renderParallelism must be positive");
+            }
+            this.renderParallelism = renderParallelism;
+            return this;
+        }
+
         /**
          * Provides a pre-configured page layout to base this printer on.
          *
@@ -548,7 +940,55 @@ public class PDFQuill {
          * @return configured printer
          */
         public PDFQuill build() {
-            return new PDFQuill(this);
+            return buildTemplate().newDocument();
+        }
+
+        /**
+         * Resolves the supplied configuration once into an immutable template that can create any number of
+         * printers, from any thread. Later changes to this builder or to the objects passed to it do not
+         * affect the template.
+         *
+         * @return configured template
+         */
+        public PDFQuillTemplate buildTemplate() {
+            PermissionSettings resolvedPermissionSettings =
+                    copyPermissionSettings(permissionSettings != null ? permissionSettings : new PermissionSettings());
+            if (permissionSettingsCustomizer != null) {
+                permissionSettingsCustomizer.accept(resolvedPermissionSettings);
+            }
+
+            MemoryPolicy resolvedMemoryPolicy = memoryPolicy;
+            if (resolvedMemoryPolicy == null) {
+                resolvedMemoryPolicy = incrementalPageFlush ? MemoryPolicy.tempFile() : MemoryPolicy.heapOnly();
+            }
+
+            return new PDFQuillTemplate(resolvePageLayout(), resolvedPermissionSettings, barcodeRenderMode,
+                    barcodeCache, resolvedMemoryPolicy, incrementalPageFlush, renderParallelism);
+        }
+
+        private PageLayout resolvePageLayout() {
+            PageLayout layout = pageLayout != null
+                    ? new PageLayout(pageLayout)
+                    : new PageLayout(paperType != null ? paperType : PaperType.A4);
+
+            if (paperType != null) {
+                layout.setPaperType(paperType);
+            }
+            if (hasCustomMargins()) {
+                layout.setMargins(
+                        marginLeft != null ? marginLeft : layout.getMarginLeft(),
+                        marginRight != null ? marginRight : layout.getMarginRight(),
+                        marginTop != null ? marginTop : layout.getMarginTop(),
+                        marginBottom != null ? marginBottom : layout.getMarginBottom());
+            }
+            if (fontSettings != null) {
+                layout.setFontSettings(copyFontSettings(fontSettings));
+            }
+            if (fontSettingsCustomizer != null) {
+                fontSettingsCustomizer.accept(layout.getFontSettings());
+                layout.recalculate();
+            }
+            return layout;
         }
     }
 }
@@ -0,0 +1,199 @@
+package org.pdfquill;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.pdfquill.barcode.BarcodeCache;
+import org.pdfquill.barcode.BarcodeRenderMode;
+import org.pdfquill.exceptions.PDFGenerationException;
+import org.pdfquill.settings.MemoryPolicy;
+import org.pdfquill.settings.PageLayout;
+import org.pdfquill.settings.font.GlyphWidthTable;
+import org.pdfquill.settings.permissions.PermissionSettings;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Immutable, fully resolved {@link PDFQuill} configuration. The layout, fonts and derived metrics are computed
+ * once when the template is built, and the glyph width tables of its fonts are loaded up front, so
+ * {@link #newDocument()} only has to allocate the new document. Templates are safe to share across threads.
+ *
+ * <p>Create templates through {@link PDFQuill.Builder#buildTemplate()}.</p>
+ */
+public final class PDFQuillTemplate {
+    private final PageLayout pageLayout;
+    private final PermissionSettings permissionSettings;
+    private final BarcodeRenderMode barcodeRenderMode;
+    private final BarcodeCache barcodeCache;
+    private final MemoryPolicy memoryPolicy;
+    private final boolean incrementalPageFlush;
+    private final int renderParallelism;
+
+    PDFQuillTemplate(PageLayout pageLayout, PermissionSettings permissionSettings, BarcodeRenderMode barcodeRenderMode,
+                     BarcodeCache barcodeCache, MemoryPolicy memoryPolicy, boolean incrementalPageFlush,
+                     int renderParallelism) {
+        this.pageLayout = pageLayout;
+        this.permissionSettings = permissionSettings;
+        this.barcodeRenderMode = barcodeRenderMode;
+        this.barcodeCache = barcodeCache;
+        this.memoryPolicy = memoryPolicy;
+        this.incrementalPageFlush = incrementalPageFlush;
+        this.renderParallelism = renderParallelism;
+
+        for (PDType1Font font : pageLayout.getFontSettings().getFontMap().values()) {
+            GlyphWidthTable.of(font);
+        }
+    }
+
+    /**
+     * Creates a new, empty document using this configuration. The returned printer is not thread-safe; it
+     * shares the template's layout until {@link PDFQuill#updateFontSettings} gives it a private copy.
+     *
+     * @return new printer
+     */
+    public PDFQuill newDocument() {
+        return new PDFQuill(this);
+    }
+
+    /**
+     * Renders a complete document in one call: creates a printer, applies {@code spec} and returns the
+     * finished PDF. The returned array is owned by the caller.
+     *
+     * @param spec document content
+     * @return PDF bytes
+     * @throws IOException            when {@code spec} fails to read its content
+     * @throws PDFGenerationException when generating the PDF fails
+     */
+    public byte[] render(DocumentSpec spec) throws IOException {
+        if (spec == null) {
+            throw new IllegalArgumentException("spec cannot be null");
+        }
+
+        PDFQuill quill = newDocument();
+        boolean rendered = false;
+        try {
+            spec.render(quill);
+            byte[] bytes = quill.takePDFBytes();
+            rendered = true;
+            return bytes;
+        } finally {
+            if (!rendered) {
+                quill.discard();
+            }
+        }
+    }
+
+    /**
+     * Renders a document on {@link RenderExecutors#defaultExecutor()}.
+     *
+     * @param spec document content
+     * @return future of the PDF bytes
+     * @see #renderAsync(DocumentSpec, Executor)
+     */
+    public CompletableFuture<byte[]> renderAsync(DocumentSpec spec) {
+        return renderAsync(spec, RenderExecutors.defaultExecutor());
+    }
+
+    /**
+     * Renders a document on {@code executor}. The future completes with the PDF bytes, or exceptionally with
+     * the exception thrown by {@code spec} or by PDF generation.
+     *
+     * @param spec     document content
+     * @param executor executor running the render
+     * @return future of the PDF bytes
+     */
+    public CompletableFuture<byte[]> renderAsync(DocumentSpec spec, Executor executor) {
+        if (spec == null) {
+            throw new IllegalArgumentException("spec cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return render(spec);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Renders a document on {@link RenderExecutors#defaultExecutor()} and streams it into {@code sink}.
+     *
+     * @param spec document content
+     * @param sink destination of the PDF bytes
+     * @return future completing once the whole document has been written
+     * @see #renderAsync(DocumentSpec, OutputStream, Executor)
+     */
+    public CompletableFuture<Void> renderAsync(DocumentSpec spec, OutputStream sink) {
+        return renderAsync(spec, sink, RenderExecutors.defaultExecutor());
+    }
+
+    /**
+     * Renders a document on {@code executor} and streams it into {@code sink} as it is saved, without keeping
+     * the PDF in memory. The sink is flushed but left open.
+     *
+     * @param spec     document content
+     * @param sink     destination of the PDF bytes
+     * @param executor executor running the render and the write
+     * @return future completing once the whole document has been written
+     */
+    public CompletableFuture<Void> renderAsync(DocumentSpec spec, OutputStream sink, Executor executor) {
+        if (spec == null) {
+            throw new IllegalArgumentException("spec cannot be null");
+        }
+        if (sink == null) {
+            throw new IllegalArgumentException("sink cannot be null");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("executor cannot be null");
+        }
+        return CompletableFuture.runAsync(() -> {
+            PDFQuill quill = newDocument();
+            try {
+                spec.render(quill);
+                quill.writeTo(sink);
+            } catch (IOException e) {
+                quill.discard();
+                throw new CompletionException(e);
+            } catch (RuntimeException e) {
+                quill.discard();
+                throw e;
+            }
+        }, executor);
+    }
+
+    /**
+     * Shared layout; callers within this package must never modify it.
+     */
+    PageLayout getPageLayout() {
+        return pageLayout;
+    }
+
+    PermissionSettings getPermissionSettings() {
+        return permissionSettings;
+    }
+
+    BarcodeRenderMode getBarcodeRenderMode() {
+        return barcodeRenderMode;
+    }
+
+    BarcodeCache getBarcodeCache() {
+        return barcodeCache;
+    }
+
+    MemoryPolicy getMemoryPolicy() {
+        return memoryPolicy;
+    }
+
+    boolean isIncrementalPageFlush() {
+        return incrementalPageFlush;
+    }
+
+    int getRenderParallelism() {
+        return renderParallelism;
+    }
+}
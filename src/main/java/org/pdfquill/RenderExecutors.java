@@ -0,0 +1,61 @@
+package org.pdfquill;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors suited to rendering documents, e.g. for {@link PDFQuillTemplate#renderAsync(DocumentSpec, java.util.concurrent.Executor)}
+ * or {@link org.pdfquill.batch.BatchRenderer}. On Java 8 to 20 they are fixed pools with one daemon thread per
+ * available processor; the multi-release JAR replaces this class on Java 21+ with one that starts a virtual thread
+ * per task. Threads are named {@code pdf-quill-render-<n>} on every platform.
+ */
+public final class RenderExecutors {
+    static final String THREAD_NAME_PREFIX = "pdf-quill-render-";
+
+    private RenderExecutors() {
+    }
+
+    /**
+     * Creates a new executor owned by the caller, who is responsible for shutting it down.
+     *
+     * @return new render executor
+     */
+    public static ExecutorService newExecutor() {
+        return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), new RenderThreadFactory());
+    }
+
+    /**
+     * Returns the executor shared by the overloads that do not take one. Its threads are daemons, so it never
+     * keeps the JVM alive. It is shared by the whole JVM, so {@code shutdown()} and {@code shutdownNow()} throw
+     * {@link UnsupportedOperationException}.
+     *
+     * @return shared render executor
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * @return {@code true} when the executors of this class run each task on its own virtual thread
+     */
+    public static boolean usesVirtualThreads() {
+        return false;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final ExecutorService INSTANCE = new SharedExecutorService(newExecutor());
+    }
+
+    private static final class RenderThreadFactory implements ThreadFactory {
+        private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, THREAD_NAME_PREFIX + NEXT_ID.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
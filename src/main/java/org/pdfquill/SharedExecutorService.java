@@ -0,0 +1,54 @@
+package org.pdfquill;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executor service shared across the JVM, such as {@link RenderExecutors#defaultExecutor()}. Tasks run on the
+ * wrapped executor, but none of its users may shut it down, since that would break every other user.
+ */
+final class SharedExecutorService extends AbstractExecutorService {
+    private final ExecutorService delegate;
+
+    SharedExecutorService(ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        this.delegate.execute(command);
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; the executor is shared
+     */
+    @Override
+    public void shutdown() {
+        throw new UnsupportedOperationException("The shared render executor cannot be shut down");
+    }
+
+    /**
+     * @throws UnsupportedOperationException always; the executor is shared
+     */
+    @Override
+    public List<Runnable> shutdownNow() {
+        throw new UnsupportedOperationException("The shared render executor cannot be shut down");
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return false;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return false;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+}
@@ -0,0 +1,223 @@
+package org.pdfquill.barcode;
+
+import com.google.zxing.common.BitMatrix;
+import org.pdfquill.exceptions.BarcodeGenerationException;
+import org.pdfquill.formatter.ContentFormatter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded, thread-safe cache of encoded barcode matrices keyed by payload, type and requested pixel size.
+ * Entries are evicted in least-recently-used order once either the entry limit or the weight limit
+ * (approximate matrix memory in bytes) is exceeded. A single cache can be shared by any number of
+ * {@code PDFQuill} instances.
+ *
+ * <p>Cached matrices are shared between callers and must be treated as read-only.</p>
+ */
+public final class BarcodeCache {
+    public static final int DEFAULT_MAX_ENTRIES = 256;
+    public static final long DEFAULT_MAX_WEIGHT = 16L * 1024 * 1024;
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LinkedHashMap<Key, BitMatrix> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * Creates a cache using {@link #DEFAULT_MAX_ENTRIES} and {@link #DEFAULT_MAX_WEIGHT}.
+     */
+    public BarcodeCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_WEIGHT);
+    }
+
+    /**
+     * @param maxEntries maximum number of cached matrices; must be positive
+     * @param maxWeight  maximum combined matrix size in bytes; must be positive
+     */
+    public BarcodeCache(int maxEntries, long maxWeight) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("maxWeight must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    /**
+     * Returns the matrix for the supplied barcode, encoding and caching it on a miss. Encoding happens
+     * outside the cache lock, so concurrent misses on the same key may both encode; the last one wins.
+     *
+     * @param code        payload to encode
+     * @param barcodeType barcode symbology
+     * @param height      minimum matrix height in pixels; {@code 0} keeps one pixel per module
+     * @param width       minimum matrix width in pixels; {@code 0} keeps one pixel per module
+     * @return the cached or freshly encoded matrix
+     * @throws BarcodeGenerationException when barcode generation fails
+     */
+    public BitMatrix getMatrix(String code, BarcodeType barcodeType, int height, int width) throws BarcodeGenerationException {
+        Key key = new Key(code, barcodeType, height, width);
+        BitMatrix matrix;
+        this.lock.lock();
+        try {
+            matrix = this.entries.get(key);
+        } finally {
+            this.lock.unlock();
+        }
+        if (matrix != null) {
+            this.hitCount.incrementAndGet();
+            return matrix;
+        }
+
+        this.missCount.incrementAndGet();
+        matrix = ContentFormatter.createBarcodeMatrix(code, barcodeType, height, width);
+        put(key, matrix);
+        return matrix;
+    }
+
+    private void put(Key key, BitMatrix matrix) {
+        long entryWeight = weigh(matrix);
+        if (entryWeight > this.maxWeight) {
+            return;
+        }
+        this.lock.lock();
+        try {
+            BitMatrix previous = this.entries.put(key, matrix);
+            if (previous != null) {
+                this.weight -= weigh(previous);
+            }
+            this.weight += entryWeight;
+            evictIfNeeded();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Key, BitMatrix>> iterator = this.entries.entrySet().iterator();
+        while ((this.entries.size() > this.maxEntries || this.weight > this.maxWeight) && iterator.hasNext()) {
+            Map.Entry<Key, BitMatrix> eldest = iterator.next();
+            this.weight -= weigh(eldest.getValue());
+            iterator.remove();
+            this.evictionCount.incrementAndGet();
+        }
+    }
+
+    private static long weigh(BitMatrix matrix) {
+        // BitMatrix packs each row into 32-bit words
+        return (long) matrix.getRowSize() * matrix.getHeight() * Integer.BYTES;
+    }
+
+    /**
+     * Removes every entry. Counters are left untouched.
+     */
+    public void clear() {
+        this.lock.lock();
+        try {
+            this.entries.clear();
+            this.weight = 0;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return number of cached matrices
+     */
+    public int size() {
+        this.lock.lock();
+        try {
+            return this.entries.size();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    /**
+     * @return approximate memory held by the cached matrices, in bytes
+     */
+    public long getWeight() {
+        this.lock.lock();
+        try {
+            return this.weight;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * @return number of lookups served from the cache
+     */
+    public long getHitCount() {
+        return this.hitCount.get();
+    }
+
+    /**
+     * @return number of lookups that had to encode the barcode
+     */
+    public long getMissCount() {
+        return this.missCount.get();
+    }
+
+    /**
+     * @return number of entries dropped to stay within the configured limits
+     */
+    public long getEvictionCount() {
+        return this.evictionCount.get();
+    }
+
+    private static final class Key {
+        private final String code;
+        private final BarcodeType barcodeType;
+        private final int height;
+        private final int width;
+        private final int hash;
+
+        Key(String code, BarcodeType barcodeType, int height, int width) {
+            this.code = code;
+            this.barcodeType = barcodeType;
+            this.height = height;
+            this.width = width;
+            this.hash = Objects.hash(code, barcodeType, height, width);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return this.height == other.height
+                    && this.width == other.width
+                    && this.barcodeType == other.barcodeType
+                    && Objects.equals(this.code, other.code);
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.pdfquill.barcode;
+
+/**
+ * Strategies for drawing barcodes and QR codes into the PDF.
+ */
+public enum BarcodeRenderMode {
+    /**
+     * Renders the barcode into a bitmap using the requested pixel dimensions and embeds it as an image.
+     */
+    RASTER,
+    /**
+     * Renders one pixel per module and lets the PDF scale the image to its printed size, with
+     * interpolation disabled so edges stay crisp. Requested pixel dimensions are ignored.
+     */
+    MODULE_RASTER,
+    /**
+     * Draws the barcode modules directly as filled rectangles, without any intermediate image.
+     * Produces smaller, resolution-independent output; requested pixel dimensions are ignored.
+     */
+    VECTOR
+}
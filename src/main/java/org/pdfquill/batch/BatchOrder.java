@@ -0,0 +1,16 @@
+package org.pdfquill.batch;
+
+/**
+ * Order in which a {@link BatchRenderer} hands results to its consumer.
+ */
+public enum BatchOrder {
+    /**
+     * Results follow the order of the input specs. A slow document holds back the ones after it, but never more
+     * than the in-flight window.
+     */
+    INPUT,
+    /**
+     * Results are delivered as soon as each document finishes.
+     */
+    COMPLETION
+}
@@ -0,0 +1,276 @@
+package org.pdfquill.batch;
+
+import org.pdfquill.DocumentSpec;
+import org.pdfquill.PDFQuillTemplate;
+import org.pdfquill.RenderExecutors;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Renders many independent documents from one {@link PDFQuillTemplate} on a caller-supplied
+ * {@link ExecutorService}. At most {@code maxInFlight} documents are submitted but not yet handed to the
+ * consumer at any time, so a large or unbounded input is pulled lazily and memory stays bounded.
+ *
+ * <p>The calling thread coordinates the batch: it submits specs, collects finished documents and invokes the
+ * consumer, which therefore never runs concurrently with itself. Rendering failures are reported as failed
+ * {@link BatchResult}s rather than aborting the batch. The executor is not shut down by this class.</p>
+ */
+public final class BatchRenderer {
+    private final PDFQuillTemplate template;
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final BatchOrder order;
+
+    private BatchRenderer(Builder builder) {
+        this.template = builder.template;
+        this.executor = builder.executor;
+        this.maxInFlight = builder.maxInFlight;
+        this.order = builder.order;
+    }
+
+    /**
+     * Creates a builder rendering on {@link RenderExecutors#defaultExecutor()}.
+     *
+     * @param template configuration every document is created from
+     * @return a new builder
+     */
+    public static Builder builder(PDFQuillTemplate template) {
+        return new Builder(template, RenderExecutors.defaultExecutor());
+    }
+
+    /**
+     * @param template configuration every document is created from
+     * @param executor executor running the document renders
+     * @return a new builder
+     */
+    public static Builder builder(PDFQuillTemplate template, ExecutorService executor) {
+        return new Builder(template, executor);
+    }
+
+    /**
+     * Renders every spec of {@code specs}.
+     *
+     * @param specs    documents to render
+     * @param consumer receives each result on the calling thread
+     * @return statistics of the run
+     * @throws InterruptedException when the calling thread is interrupted; outstanding renders are cancelled
+     */
+    public BatchReport render(Iterable<? extends DocumentSpec> specs, Consumer<? super BatchResult> consumer)
+            throws InterruptedException {
+        return render(specs.iterator(), consumer);
+    }
+
+    /**
+     * Renders every spec of {@code specs}, consuming the stream lazily.
+     *
+     * @param specs    documents to render
+     * @param consumer receives each result on the calling thread
+     * @return statistics of the run
+     * @throws InterruptedException when the calling thread is interrupted; outstanding renders are cancelled
+     */
+    public BatchReport render(Stream<? extends DocumentSpec> specs, Consumer<? super BatchResult> consumer)
+            throws InterruptedException {
+        return render(specs.iterator(), consumer);
+    }
+
+    /**
+     * Renders every spec returned by {@code specs}, pulling the next one only when the in-flight window has room.
+     *
+     * @param specs    documents to render
+     * @param consumer receives each result on the calling thread
+     * @return statistics of the run
+     * @throws InterruptedException when the calling thread is interrupted; outstanding renders are cancelled
+     */
+    public BatchReport render(Iterator<? extends DocumentSpec> specs, Consumer<? super BatchResult> consumer)
+            throws InterruptedException {
+        if (specs == null) {
+            throw new IllegalArgumentException("specs cannot be null");
+        }
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer cannot be null");
+        }
+
+        Run run = new Run(consumer);
+        long start = System.nanoTime();
+        try {
+            while (true) {
+                while (run.inFlight < this.maxInFlight && specs.hasNext()) {
+                    run.submit(specs.next());
+                }
+                if (run.inFlight == 0) {
+                    break;
+                }
+                run.collect(run.completed.take());
+            }
+        } finally {
+            run.cancelOutstanding();
+        }
+        return run.report(System.nanoTime() - start);
+    }
+
+    /**
+     * Mutable state of a single {@code render} call, confined to the calling thread.
+     */
+    private final class Run {
+        private final BlockingQueue<BatchResult> completed = new LinkedBlockingQueue<>();
+        private final Map<Long, Future<?>> running = new HashMap<>();
+        private final Map<Long, BatchResult> pending = new HashMap<>();
+        private final Consumer<? super BatchResult> consumer;
+
+        private long submitted;
+        private long nextToEmit;
+        private long failures;
+        private int inFlight;
+        private int maxInFlightSeen;
+        private int maxPendingSeen;
+        private long[] latencies = new long[64];
+        private int emitted;
+
+        Run(Consumer<? super BatchResult> consumer) {
+            this.consumer = consumer;
+        }
+
+        void submit(DocumentSpec spec) {
+            long index = this.submitted;
+            this.running.put(index, executor.submit(new RenderTask(index, spec, this.completed)));
+            this.submitted++;
+            this.inFlight++;
+            this.maxInFlightSeen = Math.max(this.maxInFlightSeen, this.inFlight);
+        }
+
+        void collect(BatchResult result) {
+            this.running.remove(result.getIndex());
+            if (order == BatchOrder.COMPLETION) {
+                emit(result);
+                return;
+            }
+
+            this.pending.put(result.getIndex(), result);
+            BatchResult next;
+            while ((next = this.pending.remove(this.nextToEmit)) != null) {
+                this.nextToEmit++;
+                emit(next);
+            }
+            this.maxPendingSeen = Math.max(this.maxPendingSeen, this.pending.size());
+        }
+
+        private void emit(BatchResult result) {
+            this.inFlight--;
+            if (!result.isSuccess()) {
+                this.failures++;
+            }
+            if (this.emitted == this.latencies.length) {
+                this.latencies = Arrays.copyOf(this.latencies, this.latencies.length * 2);
+            }
+            this.latencies[this.emitted++] = result.getLatencyNanos();
+            this.consumer.accept(result);
+        }
+
+        void cancelOutstanding() {
+            for (Future<?> future : this.running.values()) {
+                future.cancel(true);
+            }
+            this.running.clear();
+        }
+
+        BatchReport report(long elapsedNanos) {
+            return new BatchReport(this.emitted, this.failures, elapsedNanos, this.maxInFlightSeen,
+                    this.maxPendingSeen, Arrays.copyOf(this.latencies, this.emitted));
+        }
+    }
+
+    private final class RenderTask implements Runnable {
+        private final long index;
+        private final DocumentSpec spec;
+        private final BlockingQueue<BatchResult> completed;
+        private final long submittedAt = System.nanoTime();
+
+        RenderTask(long index, DocumentSpec spec, BlockingQueue<BatchResult> completed) {
+            this.index = index;
+            this.spec = spec;
+            this.completed = completed;
+        }
+
+        @Override
+        public void run() {
+            long startedAt = System.nanoTime();
+            byte[] pdfBytes = null;
+            Throwable failure = null;
+            try {
+                pdfBytes = template.render(this.spec);
+            } catch (Throwable e) {
+                // reported through the result; the coordinator must always receive one per task
+                failure = e;
+            }
+            long finishedAt = System.nanoTime();
+            this.completed.add(new BatchResult(this.index, pdfBytes, failure,
+                    finishedAt - this.submittedAt, finishedAt - startedAt));
+        }
+    }
+
+    /**
+     * Builder for {@link BatchRenderer} instances.
+     */
+    public static final class Builder {
+        private final PDFQuillTemplate template;
+        private final ExecutorService executor;
+        private int maxInFlight = 2 * Runtime.getRuntime().availableProcessors();
+        private BatchOrder order = BatchOrder.INPUT;
+
+        private Builder(PDFQuillTemplate template, ExecutorService executor) {
+            if (template == null) {
+                throw new IllegalArgumentException("template cannot be null");
+            }
+            if (executor == null) {
+                throw new IllegalArgumentException("executor cannot be null");
+            }
+            this.template = template;
+            this.executor = executor;
+        }
+
+        /**
+         * Limits how many documents may be submitted but not yet consumed. Defaults to twice the number of
+         * available processors.
+         *
+         * @param maxInFlight window size; must be positive
+         * @return this builder
+         */
+        public Builder withMaxInFlight(int maxInFlight) {
+            if (maxInFlight <= 0) {
+                throw new IllegalArgumentException("maxInFlight must be positive");
+            }
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Selects the order results are delivered in. Defaults to {@link BatchOrder#INPUT}.
+         *
+         * @param order delivery order; must not be {@code null}
+         * @return this builder
+         */
+        public Builder withOrder(BatchOrder order) {
+            if (order == null) {
+                throw new IllegalArgumentException("order cannot be null");
+            }
+            this.order = order;
+            return this;
+        }
+
+        /**
+         * @return configured renderer
+         */
+        public BatchRenderer build() {
+            return new BatchRenderer(this);
+        }
+    }
+}
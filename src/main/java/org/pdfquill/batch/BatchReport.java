@@ -0,0 +1,97 @@
+package org.pdfquill.batch;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Statistics of one {@link BatchRenderer#render} run.
+ */
+public final class BatchReport {
+    private final long documentCount;
+    private final long failureCount;
+    private final long elapsedNanos;
+    private final int maxInFlight;
+    private final int maxPendingResults;
+    private final long[] sortedLatencies;
+
+    BatchReport(long documentCount, long failureCount, long elapsedNanos, int maxInFlight, int maxPendingResults,
+                long[] latencies) {
+        this.documentCount = documentCount;
+        this.failureCount = failureCount;
+        this.elapsedNanos = elapsedNanos;
+        this.maxInFlight = maxInFlight;
+        this.maxPendingResults = maxPendingResults;
+        this.sortedLatencies = latencies.clone();
+        Arrays.sort(this.sortedLatencies);
+    }
+
+    /**
+     * @return number of documents processed, successful or not
+     */
+    public long getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * @return number of documents whose rendering failed
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return wall-clock duration of the run in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return processed documents per second
+     */
+    public double getThroughput() {
+        if (elapsedNanos <= 0) {
+            return 0d;
+        }
+        return documentCount * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /**
+     * @return highest number of documents submitted but not yet handed to the consumer
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return highest number of finished documents held back to restore input order
+     */
+    public int getMaxPendingResults() {
+        return maxPendingResults;
+    }
+
+    /**
+     * Returns a per-document latency percentile, using the nearest-rank method.
+     *
+     * @param percentile value in {@code (0, 100]}, e.g. {@code 99}
+     * @return latency in nanoseconds, or {@code 0} when the batch was empty
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile <= 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be in (0, 100]");
+        }
+        if (sortedLatencies.length == 0) {
+            return 0L;
+        }
+        int rank = (int) Math.ceil(percentile / 100d * sortedLatencies.length);
+        return sortedLatencies[Math.max(rank, 1) - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BatchReport{documents=%d, failures=%d, elapsed=%d ms, throughput=%.1f docs/s, "
+                        + "maxInFlight=%d, maxPendingResults=%d, p50=%.2f ms, p99=%.2f ms}",
+                documentCount, failureCount, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), getThroughput(),
+                maxInFlight, maxPendingResults, getLatencyPercentile(50) / 1e6, getLatencyPercentile(99) / 1e6);
+    }
+}
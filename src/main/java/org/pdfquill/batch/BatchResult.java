@@ -0,0 +1,62 @@
+package org.pdfquill.batch;
+
+/**
+ * Outcome of rendering one document of a batch: either its PDF bytes or the failure that prevented them.
+ */
+public final class BatchResult {
+    private final long index;
+    private final byte[] pdfBytes;
+    private final Throwable failure;
+    private final long latencyNanos;
+    private final long renderNanos;
+
+    BatchResult(long index, byte[] pdfBytes, Throwable failure, long latencyNanos, long renderNanos) {
+        this.index = index;
+        this.pdfBytes = pdfBytes;
+        this.failure = failure;
+        this.latencyNanos = latencyNanos;
+        this.renderNanos = renderNanos;
+    }
+
+    /**
+     * @return zero-based position of the document's spec in the input
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    /**
+     * @return {@code true} when the document was rendered
+     */
+    public boolean isSuccess() {
+        return failure == null;
+    }
+
+    /**
+     * @return the rendered PDF, owned by the caller, or {@code null} when rendering failed
+     */
+    public byte[] getPdfBytes() {
+        return pdfBytes;
+    }
+
+    /**
+     * @return the exception thrown while rendering, or {@code null} on success
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    /**
+     * @return time from submission to the executor until the document was finished, in nanoseconds
+     */
+    public long getLatencyNanos() {
+        return latencyNanos;
+    }
+
+    /**
+     * @return time spent rendering the document once a worker picked it up, in nanoseconds
+     */
+    public long getRenderNanos() {
+        return renderNanos;
+    }
+}
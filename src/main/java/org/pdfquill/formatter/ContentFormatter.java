@@ -3,6 +3,7 @@ package org.pdfquill.formatter;
 import com.google.zxing.BarcodeFormat;
 import com.google.zxing.EncodeHintType;
 import com.google.zxing.MultiFormatWriter;
+import com.google.zxing.common.BitArray;
 import com.google.zxing.common.BitMatrix;
 import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
@@ -10,14 +11,16 @@ import org.pdfquill.exceptions.BarcodeGenerationException;
 import org.pdfquill.barcode.BarcodeType;
 import org.pdfquill.barcode.BarcodeUtils;
 import org.pdfquill.settings.font.FontUtils;
+import org.pdfquill.settings.font.GlyphWidthTable;
 import org.pdfquill.writer.SplitParts;
 import org.pdfquill.writer.Text;
 import org.pdfquill.writer.TextBuilder;
 
-import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferByte;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
@@ -27,6 +30,11 @@ import java.util.Map;
  */
 public class ContentFormatter {
 
+    /**
+     * Pixel size used for raster barcodes when no explicit height or width is requested.
+     */
+    public static final int DEFAULT_BARCODE_PIXELS = 350;
+
     public static List<Text> createTextsFromSource(Text text, List<String> lines) throws IOException {
         List<Text> textList = new ArrayList<>();
         for (String line : lines) {
@@ -49,9 +57,30 @@ public class ContentFormatter {
      */
     public static BufferedImage createBarcodeImage(String code, BarcodeType barcodeType, int height, int width) throws BarcodeGenerationException {
         try {
-            if (height == 0) height = 350;
-            if (width == 0) width = 350;
+            if (height == 0) height = DEFAULT_BARCODE_PIXELS;
+            if (width == 0) width = DEFAULT_BARCODE_PIXELS;
 
+            BitMatrix byteMatrix = createBarcodeMatrix(code, barcodeType, height, width);
+            return createBinaryImage(byteMatrix, width, height);
+        } catch (BarcodeGenerationException e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new BarcodeGenerationException("Failed to create barcode image", e);
+        }
+    }
+
+    /**
+     * Encodes a barcode (or QR Code) into its module matrix.
+     *
+     * @param code        payload to encode
+     * @param barcodeType barcode symbology
+     * @param height      minimum matrix height in pixels; {@code 0} keeps one pixel per module
+     * @param width       minimum matrix width in pixels; {@code 0} keeps one pixel per module
+     * @return the encoded {@link BitMatrix}
+     * @throws BarcodeGenerationException when barcode generation fails
+     */
+    public static BitMatrix createBarcodeMatrix(String code, BarcodeType barcodeType, int height, int width) throws BarcodeGenerationException {
+        try {
             Map<EncodeHintType, Object> hintMap = new EnumMap<>(EncodeHintType.class);
             hintMap.put(EncodeHintType.CHARACTER_SET, "UTF-8");
             hintMap.put(EncodeHintType.MARGIN, 0);
@@ -59,34 +88,39 @@ public class ContentFormatter {
 
             MultiFormatWriter writer = new MultiFormatWriter();
             BarcodeFormat barcodeFormat = BarcodeUtils.getBarcodeFormat(barcodeType);
-            BitMatrix byteMatrix = writer.encode(code, barcodeFormat, width, height, hintMap);
-
-            BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
-            createGraphics(image, byteMatrix, width, height);
-            return image;
+            return writer.encode(code, barcodeFormat, width, height, hintMap);
         } catch (Throwable e) {
-            throw new BarcodeGenerationException("Failed to create barcode image", e);
+            throw new BarcodeGenerationException("Failed to encode barcode", e);
         }
     }
 
-    private static void createGraphics(BufferedImage image, BitMatrix byteMatrix, int width, int height) {
-        Graphics2D graphics = image.createGraphics();
-        graphics.setColor(Color.WHITE);
-        graphics.fillRect(0, 0, width, height);
-        graphics.setColor(Color.BLACK);
-
-        for (int i = 0; i < width; i++) {
-            for (int j = 0; j < height; j++) {
-                if (byteMatrix.get(i, j)) {
-                    graphics.fillRect(i, j, 1, 1);
-                }
+    /**
+     * Converts a module matrix into a 1-bit black and white image by writing the packed pixels straight
+     * into the image's data buffer, one row at a time.
+     *
+     * @param matrix encoded barcode modules
+     * @param width  image width in pixels; modules beyond it are dropped, missing ones stay white
+     * @param height image height in pixels; modules beyond it are dropped, missing ones stay white
+     * @return a {@link BufferedImage#TYPE_BYTE_BINARY} image of the matrix
+     */
+    public static BufferedImage createBinaryImage(BitMatrix matrix, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY);
+        byte[] pixels = ((DataBufferByte) image.getRaster().getDataBuffer()).getData();
+        // the default binary palette maps bit 0 to black and bit 1 to white
+        Arrays.fill(pixels, (byte) 0xFF);
+
+        int stride = (width + 7) / 8;
+        int columns = Math.min(width, matrix.getWidth());
+        int rows = Math.min(height, matrix.getHeight());
+        BitArray row = new BitArray(matrix.getWidth());
+        for (int y = 0; y < rows; y++) {
+            row = matrix.getRow(y, row);
+            int offset = y * stride;
+            for (int x = row.getNextSet(0); x < columns; x = row.getNextSet(x + 1)) {
+                pixels[offset + (x >>> 3)] &= (byte) ~(0x80 >>> (x & 7));
             }
         }
-        graphics.dispose();
-    }
-
-    private static float getTextWidth(String text, PDType1Font font, int fontSize) throws IOException {
-        return FontUtils.getTextWidth(text, font, fontSize);
+        return image;
     }
 
     public static List<Text> formatTextBuilder(TextBuilder textBuilder, float maxWidth) throws IOException {
@@ -108,7 +142,8 @@ public class ContentFormatter {
     }
 
     /**
-     * Wraps a block of text into multiple lines based on the current layout.
+     * Wraps a block of text into multiple lines based on the current layout. Text set in a fixed-pitch
+     * font such as Courier is wrapped by character count alone; other fonts use measured glyph widths.
      *
      * @param text text to format
      * @return A list of strings, where each entry is a line.
@@ -118,21 +153,19 @@ public class ContentFormatter {
                                                  float maxWidth, boolean preserveSpaces) throws IOException {
         List<String> lines = new ArrayList<>();
 
-        if (getTextWidth(text, font, fontSize) <= maxWidth) {
+        final int n = text.length();
+        GlyphWidthTable glyphWidths = GlyphWidthTable.of(font);
+        boolean fixedPitch = glyphWidths.isFixedPitch(text, 0, n);
+
+        float textWidth = fixedPitch ? glyphWidths.getFixedPitchWidth(n, fontSize) : glyphWidths.getTextWidth(text, fontSize);
+        if (textWidth <= maxWidth) {
             lines.add(text);
             return lines;
         }
 
-        final int n = text.length();
-        float[] widths = new float[n];
-        for (int i = 0; i < n; i++) {
-            widths[i] = getTextWidth(text.substring(i, i + 1),  font, fontSize);
-        }
-
-        float[] prefix = new float[n + 1];
-        for (int i = 1; i <= n; i++) {
-            prefix[i] = prefix[i - 1] + widths[i - 1];
-        }
+        LineFit lineFit = fixedPitch
+                ? fixedPitchLineFit(n, glyphWidths.getFixedPitchCapacity(fontSize, maxWidth))
+                : measuredLineFit(text, glyphWidths, fontSize, maxWidth);
 
         int start = 0;
 
@@ -142,19 +175,7 @@ public class ContentFormatter {
 
             if (start >= n) break;
 
-            int lo = start + 1, hi = n, best = start + 1;
-            while (lo <= hi) {
-                int mid = (lo + hi) >>> 1;
-                float w = prefix[mid] - prefix[start];
-                if (w <= maxWidth) {
-                    best = mid;
-                    lo = mid + 1;
-                } else {
-                    hi = mid - 1;
-                }
-            }
-
-            int end = best;
+            int end = lineFit.end(start);
 
             int breakIdx = end;
             if (end < n && !Character.isWhitespace(text.charAt(end - 1)) && !Character.isWhitespace(text.charAt(end))) {
@@ -166,7 +187,7 @@ public class ContentFormatter {
 
             if (breakIdx == start) breakIdx = end;
 
-            lines.add(ContentFormatter.stripTrailingWhitespace(text.substring(start, breakIdx)));
+            lines.add(text.substring(start, indexBeforeTrailingWhitespace(text, start, breakIdx)));
 
             start = breakIdx;
             while (start < n && Character.isWhitespace(text.charAt(start))) start++;
@@ -175,52 +196,128 @@ public class ContentFormatter {
         return lines;
     }
 
-    public static int findWrapIndex(String text, PDType1Font font, int fontSize, float maxWidth) throws IOException {
-        if (text.isEmpty() || maxWidth <= 0) {
-            return 0;
+    /**
+     * Resolves the exclusive end of the longest line starting at a given index, never shorter than one character.
+     */
+    private interface LineFit {
+        int end(int start);
+    }
+
+    private static LineFit fixedPitchLineFit(int length, int capacity) {
+        return start -> Math.max(start + 1, Math.min(length, start + capacity));
+    }
+
+    private static LineFit measuredLineFit(String text, GlyphWidthTable glyphWidths, int fontSize,
+                                           float maxWidth) throws IOException {
+        final int n = text.length();
+        float[] prefix = new float[n + 1];
+        for (int i = 1; i <= n; i++) {
+            prefix[i] = prefix[i - 1] + glyphWidths.getCharWidth(text.charAt(i - 1), fontSize);
         }
 
-        if (FontUtils.getTextWidth(text, font, fontSize) <= maxWidth) {
-            return text.length();
+        return start -> {
+            int lo = start + 1, hi = n, best = start + 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                float w = prefix[mid] - prefix[start];
+                if (w <= maxWidth) {
+                    best = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return best;
+        };
+    }
+
+    public static int findWrapIndex(String text, PDType1Font font, int fontSize, float maxWidth) throws IOException {
+        return findWrapIndex(text, 0, text.length(), font, fontSize, maxWidth);
+    }
+
+    /**
+     * Finds where {@code text[start, end)} has to be broken to fit {@code maxWidth}, preferring the
+     * position right after the last whitespace that fits.
+     *
+     * @return absolute break index in {@code [start, end]}; {@code start} when not even one character fits
+     * @throws IOException if font metrics cannot be read
+     */
+    public static int findWrapIndex(CharSequence text, int start, int end, PDType1Font font, int fontSize,
+                                    float maxWidth) throws IOException {
+        if (start >= end || maxWidth <= 0) {
+            return start;
         }
 
-        float width = 0f;
-        int lastFitting = 0;
-        for (int i = 0; i < text.length(); i++) {
-            float charWidth = FontUtils.getTextWidth(text.substring(i, i + 1), font, fontSize);
-            if (width + charWidth > maxWidth) {
-                break;
+        GlyphWidthTable glyphWidths = GlyphWidthTable.of(font);
+        int lastFitting;
+        if (glyphWidths.isFixedPitch(text, start, end)) {
+            int capacity = glyphWidths.getFixedPitchCapacity(fontSize, maxWidth);
+            if (end - start <= capacity) {
+                return end;
             }
-            width += charWidth;
-            lastFitting = i + 1;
+            lastFitting = start + capacity;
+        } else {
+            if (glyphWidths.getTextWidth(text, start, end, fontSize) <= maxWidth) {
+                return end;
+            }
+            lastFitting = lastFittingIndex(text, start, end, glyphWidths, fontSize, maxWidth);
         }
 
-        if (lastFitting == 0) {
-            return 0;
+        if (lastFitting == start) {
+            return start;
         }
 
         int breakIdx = lastFitting;
-        int lastWhitespace = FontUtils.lastWhitespaceBetween(text, 0, lastFitting - 1);
-        if (lastWhitespace >= 0 && lastWhitespace < lastFitting) {
+        int lastWhitespace = FontUtils.lastWhitespaceBetween(text, start, lastFitting - 1);
+        if (lastWhitespace >= start && lastWhitespace < lastFitting) {
             breakIdx = lastWhitespace + 1;
         }
         return breakIdx;
     }
 
+    private static int lastFittingIndex(CharSequence text, int start, int end, GlyphWidthTable glyphWidths,
+                                        int fontSize, float maxWidth) throws IOException {
+        float width = 0f;
+        int lastFitting = start;
+        for (int i = start; i < end; i++) {
+            float charWidth = glyphWidths.getCharWidth(text.charAt(i), fontSize);
+            if (width + charWidth > maxWidth) {
+                break;
+            }
+            width += charWidth;
+            lastFitting = i + 1;
+        }
+        return lastFitting;
+    }
+
     public static String stripLeadingWhitespace(String value) {
-        int index = 0;
-        while (index < value.length() && Character.isWhitespace(value.charAt(index))) {
+        return value.substring(indexAfterLeadingWhitespace(value, 0, value.length()));
+    }
+
+    public static String stripTrailingWhitespace(String value) {
+        return value.substring(0, indexBeforeTrailingWhitespace(value, 0, value.length()));
+    }
+
+    /**
+     * @return index of the first non-whitespace character in {@code value[from, to)}, or {@code to}
+     */
+    public static int indexAfterLeadingWhitespace(CharSequence value, int from, int to) {
+        int index = from;
+        while (index < to && Character.isWhitespace(value.charAt(index))) {
             index++;
         }
-        return value.substring(index);
+        return index;
     }
 
-    public static String stripTrailingWhitespace(String value) {
-        int end = value.length();
-        while (end > 0 && Character.isWhitespace(value.charAt(end - 1))) {
+    /**
+     * @return exclusive end of {@code value[from, to)} once trailing whitespace is dropped
+     */
+    public static int indexBeforeTrailingWhitespace(CharSequence value, int from, int to) {
+        int end = to;
+        while (end > from && Character.isWhitespace(value.charAt(end - 1))) {
             end--;
         }
-        return value.substring(0, end);
+        return end;
     }
 
     public static SplitParts splitText(Text text, float availableWidth) throws IOException {
@@ -237,13 +334,13 @@ public class ContentFormatter {
             return new SplitParts(content, null);
         }
 
-        String head = ContentFormatter.stripTrailingWhitespace(content.substring(0, breakIdx));
-        String tail = ContentFormatter.stripLeadingWhitespace(content.substring(breakIdx));
+        int headEnd = indexBeforeTrailingWhitespace(content, 0, breakIdx);
+        String tail = content.substring(indexAfterLeadingWhitespace(content, breakIdx, content.length()));
 
-        if (head.isEmpty()) {
+        if (headEnd == 0) {
             return new SplitParts(null, tail);
         }
 
-        return new SplitParts(head, tail);
+        return new SplitParts(content.substring(0, headEnd), tail);
     }
 }
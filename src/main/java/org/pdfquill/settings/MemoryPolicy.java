@@ -0,0 +1,121 @@
+package org.pdfquill.settings;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+
+import java.nio.file.Path;
+
+/**
+ * Controls where the document being generated keeps its page content streams and images until it is saved.
+ * Instances are immutable and map onto PDFBox's {@link MemoryUsageSetting}.
+ */
+public final class MemoryPolicy {
+    private enum Storage { HEAP_ONLY, MIXED, TEMP_FILE }
+
+    private static final MemoryPolicy HEAP_ONLY = new MemoryPolicy(Storage.HEAP_ONLY, -1, null);
+    private static final MemoryPolicy TEMP_FILE = new MemoryPolicy(Storage.TEMP_FILE, -1, null);
+
+    private final Storage storage;
+    private final long maxHeapBytes;
+    private final Path tempDirectory;
+
+    private MemoryPolicy(Storage storage, long maxHeapBytes, Path tempDirectory) {
+        this.storage = storage;
+        this.maxHeapBytes = maxHeapBytes;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Keeps the whole document on the heap. This is the default and the fastest option for small documents.
+     *
+     * @return heap-only policy
+     */
+    public static MemoryPolicy heapOnly() {
+        return HEAP_ONLY;
+    }
+
+    /**
+     * Keeps up to {@code maxHeapBytes} of document content on the heap and spills the rest to a scratch file.
+     *
+     * @param maxHeapBytes heap budget in bytes; must be positive
+     * @return mixed policy
+     */
+    public static MemoryPolicy mixed(long maxHeapBytes) {
+        if (maxHeapBytes <= 0) {
+            throw new IllegalArgumentException("maxHeapBytes must be positive");
+        }
+        return new MemoryPolicy(Storage.MIXED, maxHeapBytes, null);
+    }
+
+    /**
+     * Keeps all document content in a scratch file, deleted when the document is saved or closed.
+     *
+     * @return temp-file policy
+     */
+    public static MemoryPolicy tempFile() {
+        return TEMP_FILE;
+    }
+
+    /**
+     * Returns a copy of this policy whose scratch files are created in {@code tempDirectory} instead of
+     * {@code java.io.tmpdir}. Has no effect on heap-only policies.
+     *
+     * @param tempDirectory existing directory for scratch files; must not be {@code null}
+     * @return policy using the supplied directory
+     */
+    public MemoryPolicy withTempDirectory(Path tempDirectory) {
+        if (tempDirectory == null) {
+            throw new IllegalArgumentException("tempDirectory cannot be null");
+        }
+        return new MemoryPolicy(this.storage, this.maxHeapBytes, tempDirectory);
+    }
+
+    /**
+     * @return {@code true} when document content may be written to a scratch file
+     */
+    public boolean usesTempFile() {
+        return this.storage != Storage.HEAP_ONLY;
+    }
+
+    /**
+     * @return heap budget in bytes for mixed policies, or {@code -1} when not bounded by this policy
+     */
+    public long getMaxHeapBytes() {
+        return this.maxHeapBytes;
+    }
+
+    /**
+     * @return directory for scratch files, or {@code null} to use {@code java.io.tmpdir}
+     */
+    public Path getTempDirectory() {
+        return this.tempDirectory;
+    }
+
+    /**
+     * @return a new PDFBox setting equivalent to this policy
+     */
+    public MemoryUsageSetting toMemoryUsageSetting() {
+        MemoryUsageSetting setting;
+        switch (this.storage) {
+            case MIXED:
+                setting = MemoryUsageSetting.setupMixed(this.maxHeapBytes);
+                break;
+            case TEMP_FILE:
+                setting = MemoryUsageSetting.setupTempFileOnly();
+                break;
+            default:
+                return MemoryUsageSetting.setupMainMemoryOnly();
+        }
+        if (this.tempDirectory != null) {
+            setting.setTempDir(this.tempDirectory.toFile());
+        }
+        return setting;
+    }
+
+    @Override
+    public String toString() {
+        return "MemoryPolicy{" + this.storage
+                + (this.storage == Storage.MIXED ? ", maxHeapBytes=" + this.maxHeapBytes : "")
+                + (this.tempDirectory != null ? ", tempDirectory=" + this.tempDirectory : "")
+                + '}';
+    }
+}
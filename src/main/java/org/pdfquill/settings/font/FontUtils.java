@@ -6,10 +6,24 @@ import java.io.IOException;
 
 public class FontUtils {
     public static float getTextWidth(String text, PDType1Font font, int fontSize) throws IOException {
-        return font.getStringWidth(text) * fontSize / 1000f;
+        return GlyphWidthTable.of(font).getTextWidth(text, fontSize);
     }
 
-    public static int lastWhitespaceBetween(String s, int from, int toInclusive) {
+    /**
+     * Measures {@code text[start, end)} in points without creating a substring.
+     */
+    public static float getTextWidth(CharSequence text, int start, int end, PDType1Font font, int fontSize) throws IOException {
+        return GlyphWidthTable.of(font).getTextWidth(text, start, end, fontSize);
+    }
+
+    /**
+     * Measures a single character in points.
+     */
+    public static float getCharWidth(char c, PDType1Font font, int fontSize) throws IOException {
+        return GlyphWidthTable.of(font).getCharWidth(c, fontSize);
+    }
+
+    public static int lastWhitespaceBetween(CharSequence s, int from, int toInclusive) {
         for (int i = toInclusive; i >= from; i--) {
             if (Character.isWhitespace(s.charAt(i))) return i;
         }
@@ -0,0 +1,272 @@
+package org.pdfquill.settings.font;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Glyph advance widths of a {@link PDType1Font}, expressed in font units (1/1000 em).
+ * Code points of the Latin-1/WinAnsi range are resolved from a dense array filled once per font,
+ * while any other code point is measured on first use and kept in a fallback map.
+ * Tables are cached per font and can be shared across threads. Only the tables of the {@link PDType1Font}
+ * constants are kept for the lifetime of the JVM; those of any other font instance, including one a caller
+ * built for a standard 14 font, are released with it.
+ */
+public final class GlyphWidthTable {
+    private static final int DENSE_RANGE = 256;
+
+    private static final Set<PDType1Font> STANDARD_FONTS = identitySetOf(
+            PDType1Font.TIMES_ROMAN, PDType1Font.TIMES_BOLD, PDType1Font.TIMES_ITALIC, PDType1Font.TIMES_BOLD_ITALIC,
+            PDType1Font.HELVETICA, PDType1Font.HELVETICA_BOLD, PDType1Font.HELVETICA_OBLIQUE,
+            PDType1Font.HELVETICA_BOLD_OBLIQUE, PDType1Font.COURIER, PDType1Font.COURIER_BOLD,
+            PDType1Font.COURIER_OBLIQUE, PDType1Font.COURIER_BOLD_OBLIQUE, PDType1Font.SYMBOL,
+            PDType1Font.ZAPF_DINGBATS);
+    // only ever holds the constants above, so it never grows past them
+    private static final Map<PDType1Font, GlyphWidthTable> STANDARD_TABLES = new ConcurrentHashMap<>();
+    private static final Map<PDType1Font, GlyphWidthTable> CUSTOM_TABLES = new WeakHashMap<>();
+    // explicit lock rather than a synchronized map, so a virtual thread waiting here does not pin its carrier
+    private static final ReentrantLock CUSTOM_TABLES_LOCK = new ReentrantLock();
+
+    private final WeakReference<PDType1Font> fontReference;
+    private final float[] denseWidths = new float[DENSE_RANGE];
+    private final Map<Integer, Float> fallbackWidths = new ConcurrentHashMap<>();
+    private final float fixedAdvance;
+
+    private GlyphWidthTable(PDType1Font font) {
+        this.fontReference = new WeakReference<>(font);
+        for (int codePoint = 0; codePoint < DENSE_RANGE; codePoint++) {
+            this.denseWidths[codePoint] = measureOrNaN(font, codePoint);
+        }
+        this.fixedAdvance = resolveFixedAdvance(this.denseWidths);
+    }
+
+    private static Set<PDType1Font> identitySetOf(PDType1Font... fonts) {
+        Set<PDType1Font> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(Arrays.asList(fonts));
+        return Collections.unmodifiableSet(set);
+    }
+
+    private static float resolveFixedAdvance(float[] widths) {
+        float advance = Float.NaN;
+        for (float width : widths) {
+            if (Float.isNaN(width)) {
+                continue;
+            }
+            if (Float.isNaN(advance)) {
+                advance = width;
+            } else if (advance != width) {
+                return Float.NaN;
+            }
+        }
+        return advance > 0 ? advance : Float.NaN;
+    }
+
+    /**
+     * Returns the table of the supplied font, building it on first use. Building the table also
+     * warms PDFBox's own per-font encoding caches for the whole dense range.
+     *
+     * @param font font to measure
+     * @return shared table for {@code font}
+     */
+    public static GlyphWidthTable of(PDType1Font font) {
+        if (STANDARD_FONTS.contains(font)) {
+            GlyphWidthTable table = STANDARD_TABLES.get(font);
+            if (table == null) {
+                table = new GlyphWidthTable(font);
+                STANDARD_TABLES.put(font, table);
+            }
+            return table;
+        }
+
+        CUSTOM_TABLES_LOCK.lock();
+        try {
+            GlyphWidthTable table = CUSTOM_TABLES.get(font);
+            if (table != null) {
+                return table;
+            }
+        } finally {
+            CUSTOM_TABLES_LOCK.unlock();
+        }
+        GlyphWidthTable table = new GlyphWidthTable(font);
+        CUSTOM_TABLES_LOCK.lock();
+        try {
+            GlyphWidthTable raced = CUSTOM_TABLES.putIfAbsent(font, table);
+            return raced != null ? raced : table;
+        } finally {
+            CUSTOM_TABLES_LOCK.unlock();
+        }
+    }
+
+    private static float measureOrNaN(PDType1Font font, int codePoint) {
+        try {
+            return font.getStringWidth(String.valueOf((char) codePoint));
+        } catch (IOException | IllegalArgumentException e) {
+            // not encodable; resolved (and reported) through the font when actually measured
+            return Float.NaN;
+        }
+    }
+
+    /**
+     * Returns the advance width of a single code point in font units.
+     *
+     * @param codePoint Unicode code point
+     * @return width in font units
+     * @throws IOException              when the font metrics cannot be read
+     * @throws IllegalArgumentException when the font cannot encode the code point
+     */
+    public float getWidth(int codePoint) throws IOException {
+        if (codePoint >= 0 && codePoint < DENSE_RANGE) {
+            float width = this.denseWidths[codePoint];
+            if (!Float.isNaN(width)) {
+                return width;
+            }
+            return measure(codePoint);
+        }
+
+        Float width = this.fallbackWidths.get(codePoint);
+        if (width == null) {
+            width = measure(codePoint);
+            this.fallbackWidths.put(codePoint, width);
+        }
+        return width;
+    }
+
+    private float measure(int codePoint) throws IOException {
+        PDType1Font font = this.fontReference.get();
+        if (font == null) {
+            throw new IllegalStateException("Font of this glyph width table is no longer available");
+        }
+        return font.getStringWidth(new String(Character.toChars(codePoint)));
+    }
+
+    /**
+     * @return {@code true} when every encodable glyph of the dense range shares the same advance, as in Courier
+     */
+    public boolean isFixedPitch() {
+        return !Float.isNaN(this.fixedAdvance);
+    }
+
+    /**
+     * Checks whether {@code text[start, end)} can be measured by character count alone, i.e. the font is
+     * fixed-pitch and every character is an encodable glyph of the dense range.
+     *
+     * @param text  text holding the range
+     * @param start first index, inclusive
+     * @param end   last index, exclusive
+     * @return {@code true} when {@link #getFixedPitchCapacity(int, float)} applies to the range
+     */
+    public boolean isFixedPitch(CharSequence text, int start, int end) {
+        if (!isFixedPitch()) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c >= DENSE_RANGE || Float.isNaN(this.denseWidths[c])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns how many glyphs of a fixed-pitch font fit in {@code maxWidth}.
+     *
+     * @param fontSize font size in points
+     * @param maxWidth available width in points
+     * @return number of characters that fit; {@code 0} when the font is proportional or nothing fits
+     */
+    public int getFixedPitchCapacity(int fontSize, float maxWidth) {
+        if (!isFixedPitch() || fontSize <= 0 || maxWidth <= 0) {
+            return 0;
+        }
+        return (int) Math.floor(maxWidth * 1000f / (this.fixedAdvance * fontSize));
+    }
+
+    /**
+     * Returns the width of {@code chars} glyphs of a fixed-pitch font in points.
+     *
+     * @param chars    number of characters
+     * @param fontSize font size in points
+     * @return width in points, or {@link Float#NaN} when the font is proportional
+     */
+    public float getFixedPitchWidth(int chars, int fontSize) {
+        return chars * this.fixedAdvance * fontSize / 1000f;
+    }
+
+    /**
+     * Returns the width of the supplied text in font units, matching {@link PDType1Font#getStringWidth(String)}.
+     *
+     * @param text text to measure
+     * @return width in font units
+     * @throws IOException when the font metrics cannot be read
+     */
+    public float getStringWidth(CharSequence text) throws IOException {
+        return getStringWidth(text, 0, text.length());
+    }
+
+    /**
+     * Returns the width of {@code text[start, end)} in font units without copying the range.
+     *
+     * @param text  text holding the range
+     * @param start first index, inclusive
+     * @param end   last index, exclusive
+     * @return width in font units
+     * @throws IOException when the font metrics cannot be read
+     */
+    public float getStringWidth(CharSequence text, int start, int end) throws IOException {
+        float width = 0f;
+        for (int offset = start; offset < end; ) {
+            int codePoint = Character.codePointAt(text, offset);
+            width += getWidth(codePoint);
+            offset += Character.charCount(codePoint);
+        }
+        return width;
+    }
+
+    /**
+     * Returns the width of the supplied text in points for the given font size.
+     *
+     * @param text     text to measure
+     * @param fontSize font size in points
+     * @return width in points
+     * @throws IOException when the font metrics cannot be read
+     */
+    public float getTextWidth(CharSequence text, int fontSize) throws IOException {
+        return getStringWidth(text) * fontSize / 1000f;
+    }
+
+    /**
+     * Returns the width of {@code text[start, end)} in points for the given font size.
+     *
+     * @param text     text holding the range
+     * @param start    first index, inclusive
+     * @param end      last index, exclusive
+     * @param fontSize font size in points
+     * @return width in points
+     * @throws IOException when the font metrics cannot be read
+     */
+    public float getTextWidth(CharSequence text, int start, int end, int fontSize) throws IOException {
+        return getStringWidth(text, start, end) * fontSize / 1000f;
+    }
+
+    /**
+     * Returns the width of a single UTF-16 character in points for the given font size.
+     *
+     * @param c        character to measure
+     * @param fontSize font size in points
+     * @return width in points
+     * @throws IOException when the font metrics cannot be read
+     */
+    public float getCharWidth(char c, int fontSize) throws IOException {
+        return getWidth(c) * fontSize / 1000f;
+    }
+}
@@ -0,0 +1,50 @@
+package org.pdfquill.writer;
+
+import com.google.zxing.common.BitMatrix;
+
+import java.io.IOException;
+
+/**
+ * A barcode module matrix drawn as vector shapes into the box whose bottom-left corner is
+ * ({@link #getX()}, {@link #getY()}). The matrix is shared, e.g. with a barcode cache, and must not be modified.
+ */
+public final class BarcodeItem implements DisplayItem {
+    private final BitMatrix matrix;
+    private final float x;
+    private final float y;
+    private final float width;
+    private final float height;
+
+    BarcodeItem(BitMatrix matrix, float x, float y, float width, float height) {
+        this.matrix = matrix;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    public BitMatrix getMatrix() {
+        return matrix;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void accept(DisplayItemVisitor visitor) throws IOException {
+        visitor.visitBarcode(this);
+    }
+}
@@ -0,0 +1,76 @@
+package org.pdfquill.writer;
+
+import com.google.zxing.common.BitArray;
+import com.google.zxing.common.BitMatrix;
+
+import java.io.IOException;
+
+/**
+ * Draws a ZXing {@link BitMatrix} as vector rectangles. Consecutive set modules of a row are merged
+ * into a single rectangle and identical consecutive rows are merged into one band, so a 1D barcode
+ * becomes one rectangle per bar and QR codes need at most one rectangle per run.
+ */
+final class BitMatrixPainter {
+
+    private BitMatrixPainter() {
+        // utility class
+    }
+
+    /**
+     * Fills the set modules of {@code matrix} into the box starting at ({@code x}, {@code y}) with the given size.
+     * State changes go through {@code cursor}, so a fill colour already in effect is not written again.
+     */
+    static void paint(TextCursor cursor, ContentStreamWriter contentStream, BitMatrix matrix, float x, float y,
+                     float width, float height) throws IOException {
+        int columns = matrix.getWidth();
+        int rows = matrix.getHeight();
+
+        cursor.saveGraphicsState();
+        // module space: one unit per module, origin at the top-left corner of the box
+        contentStream.transform(width / columns, 0, 0, -height / rows, x, y + height);
+        cursor.setFillGray(0f);
+
+        boolean filled = false;
+        BitArray band = new BitArray(columns);
+        BitArray row = new BitArray(columns);
+        int bandStart = 0;
+        matrix.getRow(0, band);
+
+        for (int rowIndex = 1; rowIndex <= rows; rowIndex++) {
+            if (rowIndex < rows) {
+                matrix.getRow(rowIndex, row);
+                if (row.equals(band)) {
+                    continue;
+                }
+            }
+
+            filled |= addRuns(contentStream, band, columns, bandStart, rowIndex - bandStart);
+
+            BitArray previous = band;
+            band = row;
+            row = previous;
+            bandStart = rowIndex;
+        }
+
+        if (filled) {
+            contentStream.fill();
+        }
+        cursor.restoreGraphicsState();
+    }
+
+    /**
+     * @return {@code true} when at least one rectangle was added
+     */
+    private static boolean addRuns(ContentStreamWriter contentStream, BitArray row, int columns, int top,
+                                   int bandHeight) {
+        boolean added = false;
+        int start = row.getNextSet(0);
+        while (start < columns) {
+            int end = row.getNextUnset(start);
+            contentStream.addRect(start, top, end - start, bandHeight);
+            added = true;
+            start = row.getNextSet(end);
+        }
+        return added;
+    }
+}
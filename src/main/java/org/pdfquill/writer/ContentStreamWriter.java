@@ -0,0 +1,356 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Writes the content stream of one page at a time straight into a byte buffer that is reused for every page
+ * it writes, replacing {@link org.apache.pdfbox.pdmodel.PDPageContentStream} on the writer's hot path.
+ * Numbers are written with {@value #FRACTION_DIGITS} fraction digits at most, without allocating. When the
+ * page is finished the buffer is Flate-compressed into an {@link EncodedPage}, which is attached to its page
+ * separately.
+ *
+ * <p>The writer never touches the document: resources are named {@code F1}, {@code F2}, ... and
+ * {@code Im1}, ... in order of first use on the page, so instances can encode different pages of one
+ * document on different threads with the same result. An instance itself is not thread-safe.</p>
+ *
+ * <p>The writer only checks what the PDF syntax requires of its callers: text operators inside a text
+ * object, and graphics state and XObject operators outside one.</p>
+ */
+final class ContentStreamWriter implements AutoCloseable {
+    static final int FRACTION_DIGITS = 4;
+
+    private static final int INITIAL_CAPACITY = 4 * 1024;
+    private static final long SCALE = 10_000L;
+    private static final float MAX_FAST_MAGNITUDE = 1e9f;
+
+    private static final byte[] BEGIN_TEXT = operator("BT");
+    private static final byte[] END_TEXT = operator("ET");
+    private static final byte[] SET_FONT = operator("Tf");
+    private static final byte[] SET_LEADING = operator("TL");
+    private static final byte[] NEXT_LINE = operator("T*");
+    private static final byte[] MOVE_TEXT = operator("Td");
+    private static final byte[] SHOW_TEXT = operator("Tj");
+    private static final byte[] FILL_GRAY = operator("g");
+    private static final byte[] SAVE_STATE = operator("q");
+    private static final byte[] RESTORE_STATE = operator("Q");
+    private static final byte[] TRANSFORM = operator("cm");
+    private static final byte[] RECTANGLE = operator("re");
+    private static final byte[] FILL = operator("f");
+    private static final byte[] DRAW_OBJECT = operator("Do");
+
+    private final Map<PDType1Font, COSName> fontNames = new IdentityHashMap<>();
+    private final Map<PDImageXObject, COSName> imageNames = new IdentityHashMap<>();
+    private final Map<COSName, PDType1Font> fonts = new LinkedHashMap<>();
+    private final Map<COSName, PDImageXObject> images = new LinkedHashMap<>();
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+
+    private byte[] buffer = new byte[INITIAL_CAPACITY];
+    private byte[] compressed = new byte[INITIAL_CAPACITY];
+    private int count;
+    private boolean pageOpen;
+    private boolean inTextObject;
+
+    private static byte[] operator(String name) {
+        return (name + '\n').getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Starts writing the content of a new page, discarding anything not yet finished.
+     */
+    void beginPage() {
+        this.pageOpen = true;
+        this.count = 0;
+        this.inTextObject = false;
+        this.fontNames.clear();
+        this.imageNames.clear();
+        this.fonts.clear();
+        this.images.clear();
+    }
+
+    /**
+     * Compresses the buffered operators and returns them with the resources they refer to.
+     *
+     * @param visibleContent whether the page shows anything, as decided by the caller
+     */
+    EncodedPage finishPage(boolean visibleContent) {
+        requirePage();
+        if (this.inTextObject) {
+            throw new IllegalStateException("Text object is still open");
+        }
+        this.deflater.reset();
+        this.deflater.setInput(this.buffer, 0, this.count);
+        this.deflater.finish();
+        int length = 0;
+        while (!this.deflater.finished()) {
+            if (length == this.compressed.length) {
+                this.compressed = Arrays.copyOf(this.compressed, this.compressed.length << 1);
+            }
+            length += this.deflater.deflate(this.compressed, length, this.compressed.length - length);
+        }
+        this.pageOpen = false;
+        return new EncodedPage(Arrays.copyOf(this.compressed, length), this.fonts, this.images, visibleContent);
+    }
+
+    /**
+     * Releases the native compressor; the writer cannot be used afterwards.
+     */
+    @Override
+    public void close() {
+        this.deflater.end();
+    }
+
+    void beginText() {
+        requirePage();
+        if (this.inTextObject) {
+            throw new IllegalStateException("Text object is already open");
+        }
+        this.inTextObject = true;
+        writeBytes(BEGIN_TEXT);
+    }
+
+    void endText() {
+        requireTextObject();
+        this.inTextObject = false;
+        writeBytes(END_TEXT);
+    }
+
+    void setFont(PDType1Font font, float fontSize) {
+        requireTextObject();
+        COSName name = this.fontNames.get(font);
+        if (name == null) {
+            name = COSName.getPDFName("F" + (this.fonts.size() + 1));
+            this.fontNames.put(font, name);
+            this.fonts.put(name, font);
+        }
+        writeName(name);
+        writeNumber(fontSize);
+        writeBytes(SET_FONT);
+    }
+
+    void setLeading(float leading) {
+        requireTextObject();
+        writeNumber(leading);
+        writeBytes(SET_LEADING);
+    }
+
+    void newLine() {
+        requireTextObject();
+        writeBytes(NEXT_LINE);
+    }
+
+    void newLineAtOffset(float tx, float ty) {
+        requireTextObject();
+        writeNumber(tx);
+        writeNumber(ty);
+        writeBytes(MOVE_TEXT);
+    }
+
+    /**
+     * Shows {@code text} in {@code font}, which must be the font selected last.
+     *
+     * @throws IllegalArgumentException when the font cannot encode {@code text}; nothing is written then
+     */
+    void showText(String text, PDType1Font font) throws IOException {
+        requireTextObject();
+        byte[] encoded = font.encode(text);
+        writeString(encoded);
+        writeBytes(SHOW_TEXT);
+    }
+
+    void setFillGray(float gray) {
+        requirePage();
+        writeNumber(gray);
+        writeBytes(FILL_GRAY);
+    }
+
+    void saveGraphicsState() {
+        requireOutsideText("Saving the graphics state");
+        writeBytes(SAVE_STATE);
+    }
+
+    void restoreGraphicsState() {
+        requireOutsideText("Restoring the graphics state");
+        writeBytes(RESTORE_STATE);
+    }
+
+    void transform(float a, float b, float c, float d, float e, float f) {
+        requireOutsideText("Transforming");
+        writeNumber(a);
+        writeNumber(b);
+        writeNumber(c);
+        writeNumber(d);
+        writeNumber(e);
+        writeNumber(f);
+        writeBytes(TRANSFORM);
+    }
+
+    void addRect(float x, float y, float width, float height) {
+        requireOutsideText("Adding a rectangle");
+        writeNumber(x);
+        writeNumber(y);
+        writeNumber(width);
+        writeNumber(height);
+        writeBytes(RECTANGLE);
+    }
+
+    void fill() {
+        requireOutsideText("Filling");
+        writeBytes(FILL);
+    }
+
+    /**
+     * Draws {@code image} scaled into the given box, registering it in the page resources on first use.
+     */
+    void drawImage(PDImageXObject image, float x, float y, float width, float height) {
+        requireOutsideText("Drawing an image");
+        COSName name = this.imageNames.get(image);
+        if (name == null) {
+            name = COSName.getPDFName("Im" + (this.images.size() + 1));
+            this.imageNames.put(image, name);
+            this.images.put(name, image);
+        }
+        saveGraphicsState();
+        transform(width, 0, 0, height, x, y);
+        writeName(name);
+        writeBytes(DRAW_OBJECT);
+        restoreGraphicsState();
+    }
+
+    private void requirePage() {
+        if (!this.pageOpen) {
+            throw new IllegalStateException("No page is being written");
+        }
+    }
+
+    private void requireTextObject() {
+        requirePage();
+        if (!this.inTextObject) {
+            throw new IllegalStateException("Text operators require an open text object");
+        }
+    }
+
+    private void requireOutsideText(String action) {
+        requirePage();
+        if (this.inTextObject) {
+            throw new IllegalStateException(action + " is not allowed within a text object");
+        }
+    }
+
+    /**
+     * Writes {@code value} followed by a space, rounded to {@value #FRACTION_DIGITS} fraction digits and
+     * without trailing zeros.
+     */
+    void writeNumber(float value) {
+        if (Float.isNaN(value) || Float.isInfinite(value)) {
+            throw new IllegalArgumentException(value + " is not a finite number");
+        }
+        if (Math.abs(value) >= MAX_FAST_MAGNITUDE) {
+            // far outside any page; not worth a fast path
+            writeAscii(new BigDecimal(value).setScale(FRACTION_DIGITS, RoundingMode.HALF_UP)
+                    .stripTrailingZeros().toPlainString());
+            writeByte(' ');
+            return;
+        }
+
+        long scaled = Math.round((double) value * SCALE);
+        if (scaled < 0) {
+            writeByte('-');
+            scaled = -scaled;
+        }
+        writeDigits(scaled / SCALE);
+        int fraction = (int) (scaled % SCALE);
+        if (fraction != 0) {
+            writeByte('.');
+            for (long divisor = SCALE / 10; fraction != 0; divisor /= 10) {
+                writeByte('0' + (int) (fraction / divisor));
+                fraction %= divisor;
+            }
+        }
+        writeByte(' ');
+    }
+
+    private void writeDigits(long value) {
+        int digits = 1;
+        for (long rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        ensureCapacity(digits);
+        for (int i = this.count + digits - 1; i >= this.count; i--) {
+            this.buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        this.count += digits;
+    }
+
+    private void writeName(COSName name) {
+        writeByte('/');
+        // resource names are generated above and only contain regular characters
+        writeAscii(name.getName());
+        writeByte(' ');
+    }
+
+    private void writeString(byte[] bytes) {
+        ensureCapacity(bytes.length * 2 + 3);
+        this.buffer[this.count++] = '(';
+        for (byte b : bytes) {
+            switch (b) {
+                case '(':
+                case ')':
+                case '\\':
+                    this.buffer[this.count++] = '\\';
+                    this.buffer[this.count++] = b;
+                    break;
+                case '\r':
+                    this.buffer[this.count++] = '\\';
+                    this.buffer[this.count++] = 'r';
+                    break;
+                case '\n':
+                    this.buffer[this.count++] = '\\';
+                    this.buffer[this.count++] = 'n';
+                    break;
+                default:
+                    this.buffer[this.count++] = b;
+            }
+        }
+        this.buffer[this.count++] = ')';
+        this.buffer[this.count++] = ' ';
+    }
+
+    private void writeAscii(String text) {
+        int length = text.length();
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            this.buffer[this.count++] = (byte) text.charAt(i);
+        }
+    }
+
+    private void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, this.buffer, this.count, bytes.length);
+        this.count += bytes.length;
+    }
+
+    private void writeByte(int b) {
+        ensureCapacity(1);
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    private void ensureCapacity(int additional) {
+        int required = this.count + additional;
+        if (required > this.buffer.length) {
+            this.buffer = Arrays.copyOf(this.buffer, Math.max(this.buffer.length << 1, required));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.pdfquill.writer;
+
+import java.io.IOException;
+
+/**
+ * A positioned, immutable element of a {@link DisplayPage}. Coordinates are PDF user space units with the
+ * origin at the bottom-left corner of the page.
+ */
+public interface DisplayItem {
+
+    /**
+     * Dispatches to the {@code visitor} method matching this item's type.
+     *
+     * @param visitor output backend
+     * @throws IOException when the backend fails to write the item
+     */
+    void accept(DisplayItemVisitor visitor) throws IOException;
+}
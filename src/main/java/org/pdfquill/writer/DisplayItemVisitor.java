@@ -0,0 +1,15 @@
+package org.pdfquill.writer;
+
+import java.io.IOException;
+
+/**
+ * Output backend for the items of a {@link DisplayList}.
+ */
+public interface DisplayItemVisitor {
+
+    void visitGlyphRun(GlyphRun run) throws IOException;
+
+    void visitImage(ImageItem image) throws IOException;
+
+    void visitBarcode(BarcodeItem barcode) throws IOException;
+}
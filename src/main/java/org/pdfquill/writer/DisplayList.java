@@ -0,0 +1,23 @@
+package org.pdfquill.writer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable snapshot of laid out pages, each holding positioned glyph runs, images and barcodes. Laying out and
+ * rendering are separate phases, but a {@link PDFWriter} renders finished pages into its document as it goes to
+ * bound its memory, so a display list only ever holds the pages not rendered yet, never the whole document.
+ * Its images are already embedded in the writer's document, so it cannot be replayed into another document.
+ */
+public final class DisplayList {
+    private final List<DisplayPage> pages;
+
+    DisplayList(List<DisplayPage> pages) {
+        this.pages = Collections.unmodifiableList(new ArrayList<>(pages));
+    }
+
+    public List<DisplayPage> getPages() {
+        return pages;
+    }
+}
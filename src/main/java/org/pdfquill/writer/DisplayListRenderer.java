@@ -0,0 +1,259 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Renders {@link DisplayPage}s into pages of a {@link PDDocument}. Their images were already embedded into
+ * that document while laying them out.
+ *
+ * <p>Rendering a page has two steps. Encoding turns its items into a compressed content stream without
+ * touching the document. Attaching then stores that stream and the page's resources in the document. The
+ * encoding of a batch of pages can therefore run on a fork/join pool while attaching stays on the calling
+ * thread, in page order.</p>
+ *
+ * <p>Encoding threads come from one fork/join pool per parallelism level, shared by every document in the JVM
+ * and created on first use. Idle workers retire on their own, so a pool costs no threads between documents.</p>
+ */
+final class DisplayListRenderer implements AutoCloseable {
+    // leaves smaller than this cost more in task overhead than they gain
+    private static final int MIN_PAGES_PER_TASK = 2;
+    // pages per encoding thread in a batch, so every thread gets a few leaves to balance the work
+    private static final int PAGES_PER_THREAD = 2 * MIN_PAGES_PER_TASK;
+    // handing a batch to the pool costs about as much as encoding one or two A4 pages, so smaller batches
+    // stay serial; see the 64 paragraph case of RenderParallelismBenchmark
+    static final int MIN_PARALLEL_PAGES = 8;
+    private static final String THREAD_NAME_PREFIX = "pdf-quill-encode-";
+    private static final ConcurrentMap<Integer, ForkJoinPool> ENCODE_POOLS = new ConcurrentHashMap<>();
+
+    private final PDDocument document;
+    private final PageEncoder serialEncoder = new PageEncoder();
+    private long parallelElidedOperatorCount;
+
+    DisplayListRenderer(PDDocument document) {
+        this.document = document;
+    }
+
+    /**
+     * Returns how many finished pages a writer should collect before rendering them, trading the pages held as
+     * display items against the work available to each encoding thread.
+     *
+     * @param parallelism maximum number of encoding threads
+     * @return number of pages per {@link #renderAll(List, boolean, int)} call
+     */
+    static int batchSize(int parallelism) {
+        return parallelism <= 1 ? 1 : Math.max(MIN_PARALLEL_PAGES, parallelism * PAGES_PER_THREAD);
+    }
+
+    /**
+     * Renders {@code page} into a new page object, which is not added to the document.
+     *
+     * @param page      laid out page
+     * @param keepBlank whether a page without visible content is still returned
+     * @return the rendered page, or {@code null} when it has no visible content and blank pages are dropped
+     */
+    PDPage render(DisplayPage page, boolean keepBlank) throws IOException {
+        return attach(page, this.serialEncoder.encode(page), keepBlank);
+    }
+
+    /**
+     * Renders {@code pages}, encoding their content streams on up to {@code parallelism} threads. Pages are
+     * only encoded concurrently when all their text uses standard 14 fonts, whose PDFBox encoding caches are
+     * thread-safe, and when there are at least {@value #MIN_PARALLEL_PAGES} of them; otherwise this is equivalent
+     * to rendering them one by one.
+     *
+     * @param pages       laid out pages, in document order
+     * @param keepBlank   whether pages without visible content are still returned
+     * @param parallelism maximum number of encoding threads
+     * @return the rendered pages that were kept, in document order, not yet added to the document
+     */
+    List<PDPage> renderAll(List<DisplayPage> pages, boolean keepBlank, int parallelism) throws IOException {
+        List<PDPage> rendered = new ArrayList<>(pages.size());
+        if (parallelism <= 1 || pages.size() < MIN_PARALLEL_PAGES || !canEncodeConcurrently(pages)) {
+            for (DisplayPage page : pages) {
+                PDPage pdPage = render(page, keepBlank);
+                if (pdPage != null) {
+                    rendered.add(pdPage);
+                }
+            }
+            return rendered;
+        }
+
+        EncodedPage[] encoded = encodeConcurrently(pages, parallelism);
+        for (int i = 0; i < encoded.length; i++) {
+            PDPage pdPage = attach(pages.get(i), encoded[i], keepBlank);
+            if (pdPage != null) {
+                rendered.add(pdPage);
+            }
+        }
+        return rendered;
+    }
+
+    private EncodedPage[] encodeConcurrently(List<DisplayPage> pages, int parallelism) throws IOException {
+        EncodedPage[] encoded = new EncodedPage[pages.size()];
+        AtomicLong elided = new AtomicLong();
+        int pagesPerTask = Math.max(MIN_PAGES_PER_TASK, pages.size() / (parallelism * 4));
+        try {
+            encodePool(parallelism).invoke(new EncodeTask(pages, encoded, 0, pages.size(), pagesPerTask, elided));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        this.parallelElidedOperatorCount += elided.get();
+        return encoded;
+    }
+
+    /**
+     * @return the shared pool with {@code parallelism} workers, created on first use
+     */
+    static ForkJoinPool encodePool(int parallelism) {
+        return ENCODE_POOLS.computeIfAbsent(parallelism, DisplayListRenderer::newEncodePool);
+    }
+
+    private static ForkJoinPool newEncodePool(int parallelism) {
+        // newer JDKs only assign the pool index once the worker starts, so it cannot tell workers apart here
+        AtomicInteger nextId = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName(THREAD_NAME_PREFIX + parallelism + "-" + nextId.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    private static boolean canEncodeConcurrently(List<DisplayPage> pages) {
+        for (DisplayPage page : pages) {
+            for (DisplayItem item : page.getItems()) {
+                if (item instanceof GlyphRun && !((GlyphRun) item).getFont().isStandard14()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private PDPage attach(DisplayPage page, EncodedPage encoded, boolean keepBlank) throws IOException {
+        if (!keepBlank && !encoded.hasVisibleContent()) {
+            return null;
+        }
+        PDPage pdPage = new PDPage(new PDRectangle(page.getWidth(), page.getHeight()));
+        encoded.attachTo(this.document, pdPage);
+        return pdPage;
+    }
+
+    /**
+     * @return number of state operators skipped on the pages rendered so far
+     */
+    long getElidedOperatorCount() {
+        return this.serialEncoder.getElidedOperatorCount() + this.parallelElidedOperatorCount;
+    }
+
+    @Override
+    public void close() {
+        this.serialEncoder.close();
+    }
+
+    /**
+     * Encodes pages one at a time with its own writer and cursor; confined to one thread.
+     */
+    private final class PageEncoder implements DisplayItemVisitor, AutoCloseable {
+        private final ContentStreamWriter contentStream = new ContentStreamWriter();
+        private final TextCursor textCursor = new TextCursor();
+
+        EncodedPage encode(DisplayPage page) throws IOException {
+            this.contentStream.beginPage();
+            this.textCursor.bindToContentStream(this.contentStream);
+            for (DisplayItem item : page.getItems()) {
+                item.accept(this);
+            }
+            this.textCursor.closeTextObject();
+            return this.contentStream.finishPage(this.textCursor.hasWrittenContent());
+        }
+
+        long getElidedOperatorCount() {
+            return this.textCursor.getElidedOperatorCount();
+        }
+
+        @Override
+        public void visitGlyphRun(GlyphRun run) throws IOException {
+            try {
+                this.textCursor.showTextAt(run.getText(), run.getX(), run.getY(), run.getFont(), run.getFontSize());
+            } catch (IllegalArgumentException e) {
+                // text the font cannot encode is skipped
+                this.textCursor.closeTextObject();
+            }
+        }
+
+        @Override
+        public void visitImage(ImageItem image) throws IOException {
+            this.textCursor.closeTextObject();
+            this.contentStream.drawImage(image.getImageObject(), image.getX(), image.getY(), image.getWidth(),
+                    image.getHeight());
+            this.textCursor.markContentWritten();
+        }
+
+        @Override
+        public void visitBarcode(BarcodeItem barcode) throws IOException {
+            BitMatrixPainter.paint(this.textCursor, this.contentStream, barcode.getMatrix(), barcode.getX(),
+                    barcode.getY(), barcode.getWidth(), barcode.getHeight());
+            this.textCursor.markContentWritten();
+        }
+
+        @Override
+        public void close() {
+            this.contentStream.close();
+        }
+    }
+
+    /**
+     * Encodes a range of pages, splitting it in halves down to {@code pagesPerTask} pages per leaf.
+     */
+    private final class EncodeTask extends RecursiveAction {
+        private final List<DisplayPage> pages;
+        private final EncodedPage[] encoded;
+        private final int from;
+        private final int to;
+        private final int pagesPerTask;
+        private final AtomicLong elided;
+
+        EncodeTask(List<DisplayPage> pages, EncodedPage[] encoded, int from, int to, int pagesPerTask,
+                   AtomicLong elided) {
+            this.pages = pages;
+            this.encoded = encoded;
+            this.from = from;
+            this.to = to;
+            this.pagesPerTask = pagesPerTask;
+            this.elided = elided;
+        }
+
+        @Override
+        protected void compute() {
+            if (this.to - this.from <= this.pagesPerTask) {
+                try (PageEncoder encoder = new PageEncoder()) {
+                    for (int i = this.from; i < this.to; i++) {
+                        this.encoded[i] = encoder.encode(this.pages.get(i));
+                    }
+                    this.elided.addAndGet(encoder.getElidedOperatorCount());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int middle = (this.from + this.to) >>> 1;
+            invokeAll(new EncodeTask(this.pages, this.encoded, this.from, middle, this.pagesPerTask, this.elided),
+                    new EncodeTask(this.pages, this.encoded, middle, this.to, this.pagesPerTask, this.elided));
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package org.pdfquill.writer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One laid out page: its size, the height consumed by content and the items to draw, in drawing order.
+ */
+public final class DisplayPage {
+    private final float width;
+    private final float height;
+    private final float writtenHeight;
+    private final List<DisplayItem> items;
+
+    DisplayPage(float width, float height, float writtenHeight, List<DisplayItem> items) {
+        this.width = width;
+        this.height = height;
+        this.writtenHeight = writtenHeight;
+        this.items = Collections.unmodifiableList(new ArrayList<>(items));
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    /**
+     * @return vertical space used from the top margin down, as tracked while laying out the page
+     */
+    public float getWrittenHeight() {
+        return writtenHeight;
+    }
+
+    public List<DisplayItem> getItems() {
+        return items;
+    }
+}
@@ -0,0 +1,65 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A page content stream produced by {@link ContentStreamWriter}: the Flate-compressed operators and the named
+ * fonts and images they refer to. Encoding needs no document, so pages can be encoded concurrently and then
+ * attached to their pages one after another.
+ */
+final class EncodedPage {
+    private final byte[] compressedContent;
+    private final Map<COSName, PDType1Font> fonts;
+    private final Map<COSName, PDImageXObject> images;
+    private final boolean visibleContent;
+
+    EncodedPage(byte[] compressedContent, Map<COSName, PDType1Font> fonts, Map<COSName, PDImageXObject> images,
+                boolean visibleContent) {
+        this.compressedContent = compressedContent;
+        this.fonts = Collections.unmodifiableMap(new LinkedHashMap<>(fonts));
+        this.images = Collections.unmodifiableMap(new LinkedHashMap<>(images));
+        this.visibleContent = visibleContent;
+    }
+
+    /**
+     * @return {@code true} when the page shows text or graphics
+     */
+    boolean hasVisibleContent() {
+        return this.visibleContent;
+    }
+
+    /**
+     * Stores the content in {@code document} and makes it, and the resources it refers to, the contents of
+     * {@code page}. Must be called on the thread that owns the document.
+     */
+    void attachTo(PDDocument document, PDPage page) throws IOException {
+        COSStream stream = document.getDocument().createCOSStream();
+        try (OutputStream out = stream.createRawOutputStream()) {
+            out.write(this.compressedContent);
+        }
+        stream.setItem(COSName.FILTER, COSName.FLATE_DECODE);
+        page.setContents(new PDStream(stream));
+
+        PDResources resources = new PDResources();
+        for (Map.Entry<COSName, PDType1Font> font : this.fonts.entrySet()) {
+            resources.put(font.getKey(), font.getValue());
+        }
+        for (Map.Entry<COSName, PDImageXObject> image : this.images.entrySet()) {
+            resources.put(image.getKey(), image.getValue());
+        }
+        page.setResources(resources);
+    }
+}
@@ -0,0 +1,49 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.IOException;
+
+/**
+ * Text drawn in a single font, starting on the baseline at ({@link #getX()}, {@link #getY()}).
+ */
+public final class GlyphRun implements DisplayItem {
+    private final String text;
+    private final PDType1Font font;
+    private final int fontSize;
+    private final float x;
+    private final float y;
+
+    GlyphRun(String text, PDType1Font font, int fontSize, float x, float y) {
+        this.text = text;
+        this.font = font;
+        this.fontSize = fontSize;
+        this.x = x;
+        this.y = y;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public PDType1Font getFont() {
+        return font;
+    }
+
+    public int getFontSize() {
+        return fontSize;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    @Override
+    public void accept(DisplayItemVisitor visitor) throws IOException {
+        visitor.visitGlyphRun(this);
+    }
+}
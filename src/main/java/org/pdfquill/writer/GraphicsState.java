@@ -0,0 +1,23 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+/**
+ * The part of a content stream's graphics state that {@link TextCursor} writes, as last written. A fresh
+ * content stream starts with no font, zero leading and a black fill, as defined by the PDF specification.
+ */
+final class GraphicsState {
+    PDType1Font font;
+    int fontSize;
+    float leading;
+    float fillGray;
+
+    GraphicsState copy() {
+        GraphicsState copy = new GraphicsState();
+        copy.font = this.font;
+        copy.fontSize = this.fontSize;
+        copy.leading = this.leading;
+        copy.fillGray = this.fillGray;
+        return copy;
+    }
+}
@@ -0,0 +1,66 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+
+import java.io.IOException;
+
+/**
+ * A raster image scaled into the box whose bottom-left corner is ({@link #getX()}, {@link #getY()}). The image is
+ * embedded into the document when it is laid out, so the item holds the resulting XObject rather than the
+ * caller's pixels, which may change or be released afterwards. That XObject belongs to the writer's document, so
+ * the item can only be rendered into that document. Items with pixel identical images share one XObject.
+ */
+public final class ImageItem implements DisplayItem {
+    private final PDImageXObject imageObject;
+    private final boolean interpolationDisabled;
+    private final float x;
+    private final float y;
+    private final float width;
+    private final float height;
+
+    ImageItem(PDImageXObject imageObject, boolean interpolationDisabled, float x, float y, float width,
+              float height) {
+        this.imageObject = imageObject;
+        this.interpolationDisabled = interpolationDisabled;
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * @return the image as embedded in the document being written
+     */
+    public PDImageXObject getImageObject() {
+        return imageObject;
+    }
+
+    /**
+     * @return {@code true} when the image must be scaled without interpolation, e.g. a barcode rendered at
+     * one pixel per module
+     */
+    public boolean isInterpolationDisabled() {
+        return interpolationDisabled;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    public float getHeight() {
+        return height;
+    }
+
+    @Override
+    public void accept(DisplayItemVisitor visitor) throws IOException {
+        visitor.visitImage(this);
+    }
+}
@@ -0,0 +1,79 @@
+package org.pdfquill.writer;
+
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Content identity of an image within a document: dimensions, pixel layout and a SHA-256 digest of its
+ * ARGB pixels. Two images with equal keys are embedded as a single image XObject.
+ */
+final class ImageKey {
+    private final int width;
+    private final int height;
+    private final int imageType;
+    private final boolean interpolationDisabled;
+    private final byte[] digest;
+    private final int hash;
+
+    private ImageKey(int width, int height, int imageType, boolean interpolationDisabled, byte[] digest) {
+        this.width = width;
+        this.height = height;
+        this.imageType = imageType;
+        this.interpolationDisabled = interpolationDisabled;
+        this.digest = digest;
+        this.hash = 31 * Arrays.hashCode(digest) + width;
+    }
+
+    /**
+     * @param image                 image to identify
+     * @param interpolationDisabled whether the image is embedded with {@code /Interpolate false}
+     * @return key for the image's current pixels
+     */
+    static ImageKey of(BufferedImage image, boolean interpolationDisabled) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        MessageDigest messageDigest = newDigest();
+        int[] row = new int[width];
+        ByteBuffer bytes = ByteBuffer.allocate(width * Integer.BYTES);
+        for (int y = 0; y < height; y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            bytes.clear();
+            bytes.asIntBuffer().put(row);
+            messageDigest.update(bytes.array(), 0, bytes.capacity());
+        }
+        return new ImageKey(width, height, image.getType(), interpolationDisabled, messageDigest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImageKey)) {
+            return false;
+        }
+        ImageKey other = (ImageKey) o;
+        return this.width == other.width
+                && this.height == other.height
+                && this.imageType == other.imageType
+                && this.interpolationDisabled == other.interpolationDisabled
+                && Arrays.equals(this.digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return this.hash;
+    }
+}
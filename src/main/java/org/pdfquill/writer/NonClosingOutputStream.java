@@ -0,0 +1,26 @@
+package org.pdfquill.writer;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Shields a caller-owned stream from {@link org.apache.pdfbox.pdmodel.PDDocument#save(OutputStream)}, which
+ * closes the stream it writes to. Closing only flushes the underlying stream.
+ */
+final class NonClosingOutputStream extends FilterOutputStream {
+
+    NonClosingOutputStream(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        this.out.write(b, off, len);
+    }
+
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+}
@@ -1,42 +1,59 @@
 package org.pdfquill.writer;
 
+import com.google.zxing.common.BitMatrix;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
-import org.apache.pdfbox.pdmodel.PDPageTree;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
-import org.apache.pdfbox.text.PDFTextStripper;
 import org.pdfquill.formatter.ContentFormatter;
 import org.pdfquill.settings.font.FontUtils;
 import org.pdfquill.settings.font.FontType;
+import org.pdfquill.settings.MemoryPolicy;
 import org.pdfquill.settings.PageLayout;
 
 import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.util.ArrayDeque;
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.Deque;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Manages the PDF document lifecycle, providing a cursor-like interface for writing content.
  * It handles page creation, content streams, and final document processing.
+ *
+ * <p>Writing happens in two phases. The write methods only measure and paginate, laying content out into
+ * immutable {@link DisplayPage}s; a {@link DisplayListRenderer} turns those into PDF pages as soon as a batch of
+ * them is finished, a single page unless content is encoded in parallel. Only that batch and the page being
+ * written are held as display items, so the memory policy bounds the heap used by long documents.</p>
  */
 public class PDFWriter {
+    private static final int SAVE_BUFFER_SIZE = 64 * 1024;
+
     private final PDDocument document;
-    private final ByteArrayOutputStream os;
+    private final UnsynchronizedByteArrayOutputStream os;
     private final PDRectangle pageSize;
-    private final PageLayout pageLayout;
-
-    private PDPage currentPage;
-    private PDPageContentStream contentStream;
-    private final TextCursor textCursor;
+    private PageLayout pageLayout;
+
+    private final DisplayListRenderer renderer;
+    private final boolean incrementalPageFlush;
+    private final int renderParallelism;
+    private final int renderBatchSize;
+    // pages laid out but not rendered yet
+    private final List<DisplayPage> pendingPages = new ArrayList<>();
+    private List<DisplayItem> currentItems;
+    private float writtenHeight;
+    private float currentY;
+    // images are embedded as they are written, once per distinct content
+    private final Map<ImageKey, PDImageXObject> imageObjects = new HashMap<>();
+    private int reusedImageCount;
 
     /**
      * Creates a writer responsible for generating a PDF according to the supplied layout.
@@ -44,29 +61,83 @@ public class PDFWriter {
      * @param pageLayout layout describing page dimensions and metrics
      */
     public PDFWriter(PageLayout pageLayout) {
+        this(pageLayout, MemoryPolicy.heapOnly());
+    }
+
+    /**
+     * Creates a writer whose in-progress document is stored according to {@code memoryPolicy}.
+     *
+     * @param pageLayout   layout describing page dimensions and metrics
+     * @param memoryPolicy where page content is kept until the document is saved
+     */
+    public PDFWriter(PageLayout pageLayout, MemoryPolicy memoryPolicy) {
+        this(pageLayout, memoryPolicy, false);
+    }
+
+    /**
+     * Creates a writer that can seal every page as soon as the next one starts. A sealed page is rendered on
+     * its own and, on thermal paper, cropped to its own written height right away; otherwise every thermal
+     * page is cropped to the height written on the last page when the document is saved.
+     *
+     * @param pageLayout           layout describing page dimensions and metrics
+     * @param memoryPolicy         where page content is kept until the document is saved
+     * @param incrementalPageFlush whether finished pages are sealed as soon as the writer moves on
+     */
+    public PDFWriter(PageLayout pageLayout, MemoryPolicy memoryPolicy, boolean incrementalPageFlush) {
+        this(pageLayout, memoryPolicy, incrementalPageFlush, 1);
+    }
+
+    /**
+     * Creates a writer that encodes and compresses the content streams of its pages on up to
+     * {@code renderParallelism} threads, in batches of finished pages. Pages are still laid out, and assembled
+     * into the document, in order on the calling thread. Pages sealed by incremental page flushing are
+     * rendered one at a time.
+     *
+     * @param pageLayout           layout describing page dimensions and metrics
+     * @param memoryPolicy         where page content is kept until the document is saved
+     * @param incrementalPageFlush whether finished pages are sealed as soon as the writer moves on
+     * @param renderParallelism    maximum number of threads encoding page content; must be positive
+     */
+    public PDFWriter(PageLayout pageLayout, MemoryPolicy memoryPolicy, boolean incrementalPageFlush,
+                     int renderParallelism) {
+        if (renderParallelism <= 0) {
+            throw new IllegalArgumentException("renderParallelism must be positive");
+        }
         this.pageLayout = pageLayout;
-        this.os = new ByteArrayOutputStream();
-        this.document = new PDDocument();
+        this.incrementalPageFlush = incrementalPageFlush;
+        this.renderParallelism = renderParallelism;
+        this.renderBatchSize = incrementalPageFlush ? 1 : DisplayListRenderer.batchSize(renderParallelism);
+        this.os = new UnsynchronizedByteArrayOutputStream();
+        this.document = new PDDocument(memoryPolicy.toMemoryUsageSetting());
         this.pageSize = new PDRectangle(pageLayout.getPageWidth(), pageLayout.getPageHeight());
-        this.currentPage = null;
-        this.contentStream = null;
-        this.textCursor = new TextCursor();
+        this.renderer = new DisplayListRenderer(this.document);
+    }
+
+    /**
+     * Switches to another layout instance for subsequent content, e.g. a private copy taken before fonts are
+     * changed. The page size chosen at construction is kept.
+     *
+     * @param pageLayout layout describing metrics for the following lines
+     */
+    public void setPageLayout(PageLayout pageLayout) {
+        this.pageLayout = pageLayout;
     }
 
     private void incrementWrittenHeight() {
-        this.textCursor.advance(this.pageLayout.getLineHeight());
+        incrementWrittenHeight(this.pageLayout.getLineHeight());
     }
 
     private void incrementWrittenHeight(float height) {
-        this.textCursor.advance(height);
+        this.writtenHeight += height;
+        this.currentY = this.pageLayout.getStartY() - this.writtenHeight;
     }
 
     private float getCurrentY() {
-        return this.textCursor.getCurrentY();
+        return this.currentY;
     }
 
     private void ensurePage() throws IOException {
-        if (document.getNumberOfPages() == 0) {
+        if (this.currentItems == null) {
             addNewPage();
         }
     }
@@ -93,17 +164,113 @@ public class PDFWriter {
      * @throws IOException if writing to the content stream fails.
      */
     public void writeImage(BufferedImage image, float imageWidth, float imageHeight) throws IOException {
-        PDImageXObject pdImage = LosslessFactory.createFromImage(this.document, image);
-        addNewPageIfNeeded(imageHeight);
-        incrementWrittenHeight();
-        float lineY = (getCurrentY()) - imageHeight;
-        float imageStartX = this.pageLayout.getStartX() + (this.pageLayout.getMaxLineWidth() - imageWidth) / 2;
+        writeImage(image, false, imageWidth, imageHeight);
+    }
+
+    /**
+     * Writes a barcode image rendered at one pixel per module, letting the PDF scale it to the requested
+     * size with interpolation disabled so module edges stay sharp.
+     *
+     * @param image       module-resolution barcode image
+     * @param imageWidth  The desired width of the barcode in points.
+     * @param imageHeight The desired height of the barcode in points.
+     * @throws IOException if writing to the content stream fails.
+     */
+    public void writeModuleImage(BufferedImage image, float imageWidth, float imageHeight) throws IOException {
+        writeImage(image, true, imageWidth, imageHeight);
+    }
+
+    /**
+     * @return number of images written by reusing an XObject already embedded in this document
+     */
+    public int getReusedImageCount() {
+        return this.reusedImageCount;
+    }
 
-        this.textCursor.closeTextObject();
-        contentStream.drawImage(pdImage, imageStartX, lineY, imageWidth, imageHeight);
+    /**
+     * @return number of state operators (font, fill colour, text position) skipped because they would not
+     * have changed the state already in effect, on the pages rendered so far
+     */
+    public long getElidedOperatorCount() {
+        return this.renderer.getElidedOperatorCount();
+    }
+
+    /**
+     * Returns the pages laid out so far that have not been rendered yet, including a snapshot of the page
+     * being written. Finished pages are rendered in batches, so this never holds more than one batch of them
+     * and is not a display list of the whole document.
+     *
+     * @return immutable display list of the pending pages
+     */
+    public DisplayList getPendingPages() {
+        List<DisplayPage> pages = new ArrayList<>(this.pendingPages);
+        if (this.currentItems != null) {
+            pages.add(snapshotCurrentPage());
+        }
+        return new DisplayList(pages);
+    }
+
+    private void writeImage(BufferedImage image, boolean interpolationDisabled, float imageWidth,
+                            float imageHeight) throws IOException {
+        PDImageXObject imageObject = embedImage(image, interpolationDisabled);
+        float lineY = reserveBlock(imageHeight);
+        float imageStartX = getCenteredX(imageWidth);
+
+        this.currentItems.add(new ImageItem(imageObject, interpolationDisabled, imageStartX, lineY, imageWidth,
+                imageHeight));
         incrementWrittenHeight(imageHeight);
     }
 
+    /**
+     * Returns the XObject for the current pixels of {@code image}, embedding it unless an identical image
+     * already was. The caller may modify or drop {@code image} afterwards.
+     */
+    private PDImageXObject embedImage(BufferedImage image, boolean interpolationDisabled) throws IOException {
+        ImageKey key = ImageKey.of(image, interpolationDisabled);
+        PDImageXObject imageObject = this.imageObjects.get(key);
+        if (imageObject != null) {
+            this.reusedImageCount++;
+            return imageObject;
+        }
+        imageObject = LosslessFactory.createFromImage(this.document, image);
+        if (interpolationDisabled) {
+            imageObject.setInterpolate(false);
+        }
+        this.imageObjects.put(key, imageObject);
+        return imageObject;
+    }
+
+    /**
+     * Draws a barcode module matrix as vector rectangles, centering it and handling pagination like images.
+     *
+     * @param matrix        encoded barcode modules
+     * @param barcodeWidth  The desired width of the barcode in points.
+     * @param barcodeHeight The desired height of the barcode in points.
+     * @throws IOException if writing to the content stream fails.
+     */
+    public void writeBarcode(BitMatrix matrix, float barcodeWidth, float barcodeHeight) throws IOException {
+        float lineY = reserveBlock(barcodeHeight);
+        float barcodeStartX = getCenteredX(barcodeWidth);
+
+        this.currentItems.add(new BarcodeItem(matrix, barcodeStartX, lineY, barcodeWidth, barcodeHeight));
+        incrementWrittenHeight(barcodeHeight);
+    }
+
+    /**
+     * Moves to the next line, paginating first when a block of the given height does not fit.
+     *
+     * @return bottom Y coordinate for the block
+     */
+    private float reserveBlock(float blockHeight) throws IOException {
+        addNewPageIfNeeded(blockHeight);
+        incrementWrittenHeight();
+        return getCurrentY() - blockHeight;
+    }
+
+    private float getCenteredX(float blockWidth) {
+        return this.pageLayout.getStartX() + (this.pageLayout.getMaxLineWidth() - blockWidth) / 2;
+    }
+
     public void writeImage(ByteArrayInputStream imgBytes, int width, int height) throws IOException {
         BufferedImage image = ImageIO.read(imgBytes);
         writeImage(image, width, height);
@@ -115,11 +282,14 @@ public class PDFWriter {
      * @throws IOException when drawing the signal fails
      */
     public void writeCutSignal() throws IOException {
+        if (this.currentItems == null) {
+            throw new IllegalStateException("No page is being written");
+        }
         float lineY = getCurrentY();
 
-        this.textCursor.showTextAt(createFullWidthString(" "), this.pageLayout.getStartX(),
-                lineY - this.pageLayout.getLineHeight() * 2,
-                this.pageLayout.getFontSettings().getDefaultFont(), this.pageLayout.getFontSettings().getFontSize());
+        this.currentItems.add(new GlyphRun(createFullWidthString(" "),
+                this.pageLayout.getFontSettings().getDefaultFont(), this.pageLayout.getFontSettings().getFontSize(),
+                this.pageLayout.getStartX(), lineY - this.pageLayout.getLineHeight() * 2));
 
         incrementWrittenHeight((this.pageLayout.getLineHeight() * 2) + this.pageLayout.getLineHeight());
 
@@ -129,7 +299,8 @@ public class PDFWriter {
     }
 
     private String createFullWidthString(String text) throws IOException {
-        float textWidth = this.pageLayout.getFontSettings().getDefaultFont().getStringWidth(text) * this.pageLayout.getFontSettings().getFontSize() / 1000f;
+        float textWidth = FontUtils.getTextWidth(text, this.pageLayout.getFontSettings().getDefaultFont(),
+                this.pageLayout.getFontSettings().getFontSize());
         int repetitions = (int) Math.ceil(this.pageLayout.getMaxLineWidth() / textWidth);
         StringBuilder sb = new StringBuilder(text.length() * repetitions);
         for (int i = 0; i < repetitions; i++) {
@@ -143,28 +314,30 @@ public class PDFWriter {
                 this.pageLayout.getFontSettings().getFontSize());
     }
 
-    private void addTextLine(String text, float x, float y, PDType1Font font, int fontSize) throws IOException {
-        try {
-            this.textCursor.showTextAt(text, x, y, font, fontSize);
-        } catch (IllegalArgumentException e) {
-            this.textCursor.closeTextObject();
+    private void addTextLine(String text, float x, float y, PDType1Font font, int fontSize) {
+        if (text == null || text.isEmpty()) {
+            return;
         }
+        this.currentItems.add(new GlyphRun(text, font, fontSize, x, y));
     }
 
-    //TODO: This method is using addTextLine which opens and closes text everytime, that's not right
-    //TODO: change to open only once and update using newLineAtOffset passing Y as 0 if we need to stay at the same line
+    /**
+     * Wraps the fragments of {@code textBuilder} into lines and writes them. All fragments of a page share
+     * one text object; fragments of the same line are positioned relative to each other.
+     *
+     * @param textBuilder fragments to write
+     * @throws IOException if writing to the content stream fails
+     */
     public void writeFromTextLines(TextBuilder textBuilder) throws IOException {
         if (textBuilder == null || textBuilder.getTextList().isEmpty()) {
             return;
         }
 
-        Deque<Text> pendingTexts = new ArrayDeque<>(textBuilder.getTextList());
         List<TextLinePlan> lines = new ArrayList<>();
         LineAccumulator currentLine = new LineAccumulator(this.pageLayout.getStartX());
         float maxLineWidth = this.pageLayout.getMaxLineWidth();
 
-        while (!pendingTexts.isEmpty()) {
-            Text current = pendingTexts.pollFirst();
+        for (Text current : textBuilder.getTextList()) {
             if (current == null) {
                 continue;
             }
@@ -176,34 +349,50 @@ public class PDFWriter {
 
             PDType1Font font = current.getFontSetting().getSelectedFont();
             int fontSize = current.getFontSetting().getFontSize();
-            float availableWidth = maxLineWidth - currentLine.getWidth();
-            float textWidth = FontUtils.getTextWidth(rawText, font, fontSize);
+            int length = rawText.length();
+            // Wrapping walks an offset through rawText so only the emitted chunks are ever copied.
+            int offset = 0;
+
+            while (offset < length) {
+                float availableWidth = maxLineWidth - currentLine.getWidth();
+                float textWidth = FontUtils.getTextWidth(rawText, offset, length, font, fontSize);
+
+                if (textWidth <= availableWidth) {
+                    Text chunk = new Text(rawText.substring(offset), current.getFontSetting());
+                    currentLine.addChunk(chunk, textWidth, fontSize);
+                    break;
+                }
 
-            if (textWidth <= availableWidth) {
-                Text chunk = new Text(rawText, current.getFontSetting());
-                currentLine.addChunk(chunk, textWidth, fontSize);
-                continue;
-            }
+                if (availableWidth <= 0 || (!currentLine.isEmpty() && FontUtils.getCharWidth(rawText.charAt(offset), font, fontSize) > availableWidth)) {
+                    currentLine.flushInto(lines);
+                    continue;
+                }
 
-            if (availableWidth <= 0 || (!currentLine.isEmpty() && FontUtils.getTextWidth(rawText.substring(0, 1), font, fontSize) > availableWidth)) {
-                currentLine.flushInto(lines);
-                pendingTexts.addFirst(current);
-                continue;
-            }
+                int breakIdx = ContentFormatter.findWrapIndex(rawText, offset, length, font, fontSize, availableWidth);
+                if (breakIdx <= offset) {
+                    breakIdx = offset + 1;
+                }
 
-            SplitParts split = ContentFormatter.splitText(current, availableWidth);
-            if (split.head() != null && !split.head().isEmpty()) {
-                float headWidth = FontUtils.getTextWidth(split.head(), font, fontSize);
-                Text chunk = new Text(split.head(), current.getFontSetting());
-                currentLine.addChunk(chunk, headWidth, fontSize);
-            }
+                if (breakIdx >= length) {
+                    Text chunk = new Text(rawText.substring(offset), current.getFontSetting());
+                    currentLine.addChunk(chunk, textWidth, fontSize);
+                    break;
+                }
 
-            if (split.tail() == null || split.tail().isEmpty()) {
-                continue;
-            }
+                int headEnd = ContentFormatter.indexBeforeTrailingWhitespace(rawText, offset, breakIdx);
+                if (headEnd > offset) {
+                    float headWidth = FontUtils.getTextWidth(rawText, offset, headEnd, font, fontSize);
+                    Text chunk = new Text(rawText.substring(offset, headEnd), current.getFontSetting());
+                    currentLine.addChunk(chunk, headWidth, fontSize);
+                }
+
+                offset = ContentFormatter.indexAfterLeadingWhitespace(rawText, breakIdx, length);
+                if (offset >= length) {
+                    break;
+                }
 
-            currentLine.flushInto(lines);
-            pendingTexts.addFirst(new Text(split.tail(), current.getFontSetting()));
+                currentLine.flushInto(lines);
+            }
         }
 
         currentLine.flushInto(lines);
@@ -237,7 +426,7 @@ public class PDFWriter {
     }
 
     private boolean addNewPageIfNeeded() throws IOException {
-        if (document.getNumberOfPages() == 0 || willNewContentExceedPageWritingHeight(this.pageLayout.getLineHeight())) {
+        if (this.currentItems == null || willNewContentExceedPageWritingHeight(this.pageLayout.getLineHeight())) {
             addNewPage();
             return true;
         }
@@ -245,7 +434,7 @@ public class PDFWriter {
     }
 
     private boolean addNewPageIfNeeded(float height) throws IOException {
-        if (document.getNumberOfPages() == 0 || willNewContentExceedPageWritingHeight(height)) {
+        if (this.currentItems == null || willNewContentExceedPageWritingHeight(height)) {
             addNewPage();
             return true;
         }
@@ -253,77 +442,133 @@ public class PDFWriter {
     }
 
     private boolean willNewContentExceedPageWritingHeight(float height) {
-        return this.textCursor.getWrittenHeight() + height > this.pageLayout.getPageWritingHeight();
+        return this.writtenHeight + height > this.pageLayout.getPageWritingHeight();
     }
 
     private void addNewPage() throws IOException {
-        if (this.contentStream != null) {
-            this.textCursor.closeTextObject();
-            this.contentStream.close();
+        finishCurrentPage();
+        this.currentItems = new ArrayList<>();
+        this.writtenHeight = 0f;
+        this.currentY = this.pageLayout.getStartY();
+    }
+
+    private DisplayPage snapshotCurrentPage() {
+        return new DisplayPage(this.pageSize.getWidth(), this.pageSize.getHeight(), this.writtenHeight,
+                this.currentItems);
+    }
+
+    /**
+     * Ends the layout of the page being written. With incremental page flushing the page is rendered into
+     * the document right away; otherwise it is rendered once a batch of pages is complete.
+     */
+    private void finishCurrentPage() throws IOException {
+        if (this.currentItems == null) {
+            return;
+        }
+        DisplayPage page = snapshotCurrentPage();
+        this.currentItems = null;
+        if (this.incrementalPageFlush) {
+            renderPage(page, page.getWrittenHeight());
+            return;
+        }
+        this.pendingPages.add(page);
+        if (this.pendingPages.size() >= this.renderBatchSize) {
+            renderPendingPages();
         }
-        this.currentPage = new PDPage(this.pageSize);
-        this.document.addPage(this.currentPage);
-        this.contentStream = new PDPageContentStream(this.document, this.currentPage);
-        this.textCursor.bindToContentStream(this.contentStream, this.pageLayout.getStartX(), this.pageLayout.getStartY());
     }
 
-    public byte[] saveAndGetBytes() throws IOException {
-        if (this.contentStream != null) {
-            this.textCursor.closeTextObject();
-            this.contentStream.close();
+    /**
+     * Renders every pending page into the document.
+     */
+    private void renderPendingPages() throws IOException {
+        boolean thermal = this.pageLayout.isThermalPaper();
+        for (PDPage pdPage : this.renderer.renderAll(this.pendingPages, thermal, this.renderParallelism)) {
+            this.document.addPage(pdPage);
         }
+        this.pendingPages.clear();
+    }
+
+    /**
+     * Renders {@code page} and appends it to the document. Pages of non-thermal paper are only appended when
+     * visible content was emitted on them, so blank pages never reach the document.
+     */
+    private void renderPage(DisplayPage page, float cropHeight) throws IOException {
+        boolean thermal = this.pageLayout.isThermalPaper();
+        PDPage pdPage = this.renderer.render(page, thermal);
+        if (pdPage == null) {
+            return;
+        }
+        if (thermal) {
+            cropThermalPage(pdPage, cropHeight);
+        }
+        this.document.addPage(pdPage);
+    }
+
+    public byte[] saveAndGetBytes() throws IOException {
         if (!isClosed()) {
-            this.document.save(this.os);
-            this.document.close();
-            return cropPDF(this.os.toByteArray());
+            saveTo(this.os);
         }
         return this.os.toByteArray();
     }
 
-    private byte[] cropPDF(byte[] bs) throws IOException {
-        ByteArrayInputStream in = new ByteArrayInputStream(bs);
-        PDDocument document = PDDocument.load(in);
-        PDPageTree pages = document.getDocumentCatalog().getPages();
-        float lineHeight = this.pageLayout.getLineHeight();
-
-        for (PDPage page : pages) {
-            if (this.pageLayout.isThermalPaper()) {
-                PDRectangle mediaBox = page.getMediaBox();
-                PDRectangle cropBox = new PDRectangle(mediaBox.getLowerLeftX(), this.pageLayout.getPageHeight()
-                        - this.textCursor.getWrittenHeight() - lineHeight,
-                        mediaBox.getUpperRightX() - 3, this.textCursor.getWrittenHeight() + lineHeight);
-
-                page.setCropBox(cropBox);
-            } else {
-                if (isPageBlank(document, page)) {
-                    document.removePage(page);
+    /**
+     * Finishes the document and streams it into {@code out}, then closes the document. The stream is
+     * buffered and flushed but left open; the bytes are not retained by this writer.
+     *
+     * @param out destination of the PDF bytes
+     * @throws IOException           when saving or writing fails
+     * @throws IllegalStateException when the document was already saved or closed
+     */
+    public void saveTo(OutputStream out) throws IOException {
+        if (isClosed()) {
+            throw new IllegalStateException("Document has already been closed");
+        }
+        try {
+            finishCurrentPage();
+            renderPendingPages();
+            if (!this.incrementalPageFlush && this.pageLayout.isThermalPaper()) {
+                // only the crop box changes, so pages rendered earlier are simply revisited
+                for (PDPage pdPage : this.document.getPages()) {
+                    cropThermalPage(pdPage, this.writtenHeight);
                 }
             }
+            this.document.save(new BufferedOutputStream(new NonClosingOutputStream(out), SAVE_BUFFER_SIZE));
+        } finally {
+            this.renderer.close();
+            this.document.close();
         }
-
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        document.save(out);
-        document.close();
-
-        return out.toByteArray();
     }
 
-    private static boolean isPageBlank(PDDocument document, PDPage page) throws IOException {
-        PDFTextStripper textStripper = new PDFTextStripper();
-        textStripper.setStartPage(document.getPages().indexOf(page) + 1);
-        textStripper.setEndPage(document.getPages().indexOf(page) + 1);
+    /**
+     * Finishes the document and streams it into {@code out} as Base64 text, encoding while the document is
+     * being saved. The stream is flushed but left open; the bytes are not retained by this writer.
+     *
+     * @param out destination of the Base64 characters
+     * @throws IOException           when saving or writing fails
+     * @throws IllegalStateException when the document was already saved or closed
+     */
+    public void saveBase64To(OutputStream out) throws IOException {
+        OutputStream encoder = Base64.getEncoder().wrap(new NonClosingOutputStream(out));
+        saveTo(encoder);
+        // closing the encoder emits the final padding
+        encoder.close();
+    }
 
-        String pageText = textStripper.getText(document).trim();
+    private void cropThermalPage(PDPage page, float writtenHeight) {
+        float lineHeight = this.pageLayout.getLineHeight();
+        PDRectangle mediaBox = page.getMediaBox();
+        PDRectangle cropBox = new PDRectangle(mediaBox.getLowerLeftX(), this.pageLayout.getPageHeight()
+                - writtenHeight - lineHeight,
+                mediaBox.getUpperRightX() - 3, writtenHeight + lineHeight);
 
-        return pageText.isEmpty();
+        page.setCropBox(cropBox);
     }
 
     public void close() throws IOException {
-        if (this.contentStream != null) {
-            this.textCursor.closeTextObject();
-            this.contentStream.close();
-        }
+        this.currentItems = null;
+        this.pendingPages.clear();
         if (!isClosed()) {
+            this.renderer.close();
             this.document.close();
         }
     }
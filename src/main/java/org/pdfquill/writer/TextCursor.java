@@ -1,111 +1,185 @@
 package org.pdfquill.writer;
 
-import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
-import org.apache.pdfbox.util.Matrix;
 
 import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 
 /**
- * Tracks the current text position within a {@link PDPageContentStream}, taking care of the
+ * Tracks the current text position within a page's {@link ContentStreamWriter}, taking care of the
  * transformation matrix and the text object lifecycle so callers do not need to juggle
  * repeated begin/end calls.
+ *
+ * <p>Text on a page shares a single text object, which is only closed for non-text drawing. Lines are
+ * positioned relative to the previous one ({@code Td}, or {@code T*} when they step down by the current
+ * leading). The font, leading and fill colour in effect are tracked, including across {@code q}/{@code Q},
+ * so an operator that would not change them is never written; {@link #getElidedOperatorCount()} reports how
+ * many were skipped.</p>
  */
-public final class TextCursor {
-    private PDPageContentStream contentStream;
-    private Matrix textMatrix = Matrix.getTranslateInstance(0, 0);
+final class TextCursor {
+    private static final float POSITION_TOLERANCE = 0.001f;
 
-    private float startX;
-    private float startY;
-    private float currentX;
-    private float currentY;
-    private float writtenHeight;
+    private ContentStreamWriter contentStream;
+
+    // origin of the current line in text space; a new text object starts at the page origin
+    private float lineX;
+    private float lineY;
+    private GraphicsState state = new GraphicsState();
+    private final Deque<GraphicsState> savedStates = new ArrayDeque<>();
+    private long elidedOperatorCount;
 
     private boolean textObjectOpen = false;
+    private boolean contentWritten = false;
 
     /**
-     * Binds the cursor to a new page content stream and resets the writing origin.
+     * Binds the cursor to a new page content stream.
      */
-    public void bindToContentStream(PDPageContentStream contentStream, float startX, float startY) throws IOException {
+    void bindToContentStream(ContentStreamWriter contentStream) throws IOException {
         closeTextObject();
         this.contentStream = contentStream;
-        this.startX = startX;
-        this.startY = startY;
-        resetProgress();
-        this.textMatrix = Matrix.getTranslateInstance(startX, startY);
         this.textObjectOpen = false;
+        this.contentWritten = false;
+        this.state = new GraphicsState();
+        this.savedStates.clear();
+    }
+
+    private void requireContentStream() {
+        if (this.contentStream == null) {
+            throw new IllegalStateException("No content stream bound to cursor");
+        }
+    }
+
+    private void ensureTextObject() throws IOException {
+        requireContentStream();
+        if (!this.textObjectOpen) {
+            this.contentStream.beginText();
+            this.textObjectOpen = true;
+            this.lineX = 0f;
+            this.lineY = 0f;
+        }
     }
 
     /**
-     * Advances the cursor by the provided height, returning the new baseline Y coordinate.
+     * Moves the text position to an absolute page coordinate, emitted as a move relative to the start of
+     * the current line.
      */
-    public float advance(float height) {
-        this.writtenHeight += height;
-        this.currentY = this.startY - this.writtenHeight;
-        this.currentX = this.startX;
-        return this.currentY;
+    void moveTo(float x, float y) throws IOException {
+        ensureTextObject();
+        float dx = x - this.lineX;
+        float dy = y - this.lineY;
+        if (dx == 0f && dy < 0f && this.state.leading == 0f) {
+            // the first step down of a page fixes the leading; later lines of the same height reuse it
+            this.state.leading = -dy;
+            this.contentStream.setLeading(this.state.leading);
+        }
+        if (dx == 0f && this.state.leading > 0f && Math.abs(dy + this.state.leading) < POSITION_TOLERANCE) {
+            this.contentStream.newLine();
+            // track where T* actually lands so rounding differences never accumulate past the tolerance
+            this.lineY -= this.state.leading;
+        } else if (dx != 0f || dy != 0f) {
+            this.contentStream.newLineAtOffset(dx, dy);
+            this.lineX = x;
+            this.lineY = y;
+        } else {
+            this.elidedOperatorCount++;
+        }
     }
 
     /**
-     * Resets vertical progress tracking for a newly bound page.
+     * Writes the supplied text using the supplied font at the cursor's current position.
      */
-    public void resetProgress() {
-        this.writtenHeight = 0f;
-        this.currentX = this.startX;
-        this.currentY = this.startY;
+    void showText(String text, PDType1Font font, int fontSize) throws IOException {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        ensureTextObject();
+        if (font != this.state.font || fontSize != this.state.fontSize) {
+            this.contentStream.setFont(font, fontSize);
+            this.state.font = font;
+            this.state.fontSize = fontSize;
+        } else {
+            this.elidedOperatorCount++;
+        }
+        this.contentStream.showText(text, font);
+        if (!this.contentWritten && hasVisibleCharacters(text)) {
+            this.contentWritten = true;
+        }
+    }
+
+    private static boolean hasVisibleCharacters(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (!Character.isWhitespace(text.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
     }
 
     /**
-     * Returns the height already written on the current page.
+     * Sets the non-stroking (fill) colour to a gray level, unless it is already in effect.
+     *
+     * @param gray gray level from 0 (black) to 1 (white)
      */
-    public float getWrittenHeight() {
-        return this.writtenHeight;
+    void setFillGray(float gray) throws IOException {
+        requireContentStream();
+        if (gray == this.state.fillGray) {
+            this.elidedOperatorCount++;
+            return;
+        }
+        this.contentStream.setFillGray(gray);
+        this.state.fillGray = gray;
     }
 
     /**
-     * Returns the current Y coordinate for the baseline.
+     * Closes the text object and saves the graphics state ({@code q}), remembering the tracked state so
+     * {@link #restoreGraphicsState()} can reinstate it.
      */
-    public float getCurrentY() {
-        return this.currentY;
+    void saveGraphicsState() throws IOException {
+        requireContentStream();
+        closeTextObject();
+        this.contentStream.saveGraphicsState();
+        this.savedStates.push(this.state.copy());
     }
 
-    private void ensureTextObject() throws IOException {
-        if (this.contentStream == null) {
-            throw new IllegalStateException("No content stream bound to cursor");
-        }
-        if (!this.textObjectOpen) {
-            this.contentStream.beginText();
-            this.textObjectOpen = true;
+    /**
+     * Restores the graphics state saved by the matching {@link #saveGraphicsState()} ({@code Q}).
+     */
+    void restoreGraphicsState() throws IOException {
+        if (this.savedStates.isEmpty()) {
+            throw new IllegalStateException("No graphics state saved");
         }
+        this.contentStream.restoreGraphicsState();
+        this.state = this.savedStates.pop();
     }
 
     /**
-     * Moves the text matrix to an absolute coordinate.
+     * Returns how many font, fill colour and text position operators were skipped, across all pages,
+     * because they would not have changed the state already in effect.
      */
-    public void moveTo(float x, float y) throws IOException {
-        ensureTextObject();
-        this.currentX = x;
-        this.currentY = y;
-        this.textMatrix = Matrix.getTranslateInstance(x, y);
-        this.contentStream.setTextMatrix(this.textMatrix);
+    long getElidedOperatorCount() {
+        return this.elidedOperatorCount;
     }
 
     /**
-     * Writes the supplied text using the supplied font at the cursor's current position.
+     * Records that non-text content (images, vector drawings) was emitted on the bound page.
      */
-    public void showText(String text, PDType1Font font, int fontSize) throws IOException {
-        if (text == null || text.isEmpty()) {
-            return;
-        }
-        ensureTextObject();
-        this.contentStream.setFont(font, fontSize);
-        this.contentStream.showText(text);
+    void markContentWritten() {
+        this.contentWritten = true;
+    }
+
+    /**
+     * Returns whether visible content was emitted since the cursor was bound to the current page.
+     * Whitespace-only text, such as the padding of a cut signal, does not count as content.
+     */
+    boolean hasWrittenContent() {
+        return this.contentWritten;
     }
 
     /**
      * Convenience helper that moves the cursor then writes the text.
      */
-    public void showTextAt(String text, float x, float y, PDType1Font font, int fontSize) throws IOException {
+    void showTextAt(String text, float x, float y, PDType1Font font, int fontSize) throws IOException {
         moveTo(x, y);
         showText(text, font, fontSize);
     }
@@ -113,18 +187,10 @@ public final class TextCursor {
     /**
      * Ensures the current text object is closed so other drawing commands can run.
      */
-    public void closeTextObject() throws IOException {
+    void closeTextObject() throws IOException {
         if (this.textObjectOpen && this.contentStream != null) {
             this.contentStream.endText();
             this.textObjectOpen = false;
         }
     }
-
-    /**
-     * Releases the cursor from the bound content stream.
-     */
-    public void detach() throws IOException {
-        closeTextObject();
-        this.contentStream = null;
-    }
 }
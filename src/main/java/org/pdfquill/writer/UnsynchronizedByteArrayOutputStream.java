@@ -0,0 +1,51 @@
+package org.pdfquill.writer;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Growable in-memory byte sink without the per-call locking of {@link java.io.ByteArrayOutputStream}. Each writer
+ * owns its own instance, so the locking only cost time and, on virtual threads, pinned the carrier thread. The
+ * buffer is allocated on the first write, so writers that stream their document elsewhere never pay for it.
+ */
+final class UnsynchronizedByteArrayOutputStream extends OutputStream {
+    private static final int INITIAL_CAPACITY = 32 * 1024;
+
+    private static final byte[] EMPTY = new byte[0];
+
+    private byte[] buffer = EMPTY;
+    private int count;
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(this.count + 1);
+        this.buffer[this.count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        ensureCapacity(this.count + len);
+        System.arraycopy(b, off, this.buffer, this.count, len);
+        this.count += len;
+    }
+
+    private void ensureCapacity(int minCapacity) {
+        if (minCapacity < 0) {
+            throw new OutOfMemoryError("document exceeds the maximum array size");
+        }
+        if (minCapacity > this.buffer.length) {
+            int newCapacity = Math.max(Math.max(this.buffer.length << 1, INITIAL_CAPACITY), minCapacity);
+            this.buffer = Arrays.copyOf(this.buffer, newCapacity < 0 ? minCapacity : newCapacity);
+        }
+    }
+
+    /**
+     * @return a copy of the bytes written so far
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(this.buffer, this.count);
+    }
+}
@@ -0,0 +1,50 @@
+package org.pdfquill;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Java 21+ variant of the render executors, packaged under {@code META-INF/versions/21} of the multi-release JAR.
+ * Every task runs on its own virtual thread, so documents blocked on I/O do not hold a platform thread.
+ * Threads are named {@code pdf-quill-render-<n>}, as on older platforms.
+ */
+public final class RenderExecutors {
+    static final String THREAD_NAME_PREFIX = "pdf-quill-render-";
+
+    private static final ThreadFactory THREAD_FACTORY = Thread.ofVirtual().name(THREAD_NAME_PREFIX, 0).factory();
+
+    private RenderExecutors() {
+    }
+
+    /**
+     * Creates a new executor owned by the caller, who is responsible for shutting it down.
+     *
+     * @return new render executor
+     */
+    public static ExecutorService newExecutor() {
+        return Executors.newThreadPerTaskExecutor(THREAD_FACTORY);
+    }
+
+    /**
+     * Returns the executor shared by the overloads that do not take one. Virtual threads never keep the JVM
+     * alive. It is shared by the whole JVM, so {@code shutdown()} and {@code shutdownNow()} throw
+     * {@link UnsupportedOperationException}.
+     *
+     * @return shared render executor
+     */
+    public static ExecutorService defaultExecutor() {
+        return DefaultExecutorHolder.INSTANCE;
+    }
+
+    /**
+     * @return {@code true} when the executors of this class run each task on its own virtual thread
+     */
+    public static boolean usesVirtualThreads() {
+        return true;
+    }
+
+    private static final class DefaultExecutorHolder {
+        private static final ExecutorService INSTANCE = new SharedExecutorService(newExecutor());
+    }
+}
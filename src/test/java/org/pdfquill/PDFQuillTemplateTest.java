@@ -0,0 +1,140 @@
+package org.pdfquill;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.PageLayout;
+import org.pdfquill.settings.font.FontSettings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PDFQuillTemplateTest {
+
+    @Test
+    void templateIsDetachedFromBuilderAndSuppliedSettings() throws Exception {
+        FontSettings fontSettings = new FontSettings();
+        fontSettings.setFontSize(10);
+        PDFQuill.Builder builder = PDFQuill.builder()
+                .withPaperType(PaperType.THERMAL_80MM)
+                .withFontSettings(fontSettings);
+        PDFQuillTemplate template = builder.buildTemplate();
+
+        fontSettings.setFontSize(30);
+        builder.withPaperType(PaperType.A4);
+
+        PDFQuill quill = template.newDocument();
+        quill.printLine("Detached");
+        byte[] pdfBytes = quill.getPDFBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            assertThat(document.getPage(0).getMediaBox().getWidth())
+                    .isEqualTo(new PageLayout(PaperType.THERMAL_80MM).getPageWidth());
+        }
+        assertThat(fontSizeOfFirstGlyph(pdfBytes)).isEqualTo(10f);
+    }
+
+    @Test
+    void updatingFontsOnOneDocumentLeavesTemplateUntouched() throws Exception {
+        PDFQuillTemplate template = PDFQuill.builder().buildTemplate();
+
+        PDFQuill resized = template.newDocument();
+        FontSettings large = new FontSettings();
+        large.setFontSize(24);
+        resized.updateFontSettings(large);
+        resized.printLine("Large");
+
+        PDFQuill regular = template.newDocument();
+        regular.printLine("Regular");
+
+        assertThat(fontSizeOfFirstGlyph(resized.getPDFBytes())).isEqualTo(24f);
+        assertThat(fontSizeOfFirstGlyph(regular.getPDFBytes())).isEqualTo(12f);
+    }
+
+    @Test
+    void templateCanBeSharedAcrossThreads() throws Exception {
+        PDFQuillTemplate template = PDFQuill.builder().withPaperType(PaperType.THERMAL_58MM).buildTemplate();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<byte[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                int receipt = i;
+                futures.add(executor.submit(() -> {
+                    PDFQuill quill = template.newDocument();
+                    quill.printLine("Receipt " + receipt + " with a line long enough to wrap on narrow thermal paper");
+                    return quill.getPDFBytes();
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try (PDDocument document = PDDocument.load(futures.get(i).get())) {
+                    assertThat(new PDFTextStripper().getText(document)).contains("Receipt " + i + " ");
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void renderAsyncCompletesWithDocumentOrFailure() throws Exception {
+        PDFQuillTemplate template = PDFQuill.builder().buildTemplate();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            byte[] pdfBytes = template.renderAsync(quill -> quill.printLine("Async"), executor).get();
+            try (PDDocument document = PDDocument.load(pdfBytes)) {
+                assertThat(new PDFTextStripper().getText(document)).contains("Async");
+            }
+
+            CompletableFuture<byte[]> failed = template.renderAsync(quill -> {
+                throw new IOException("logo missing");
+            }, executor);
+            assertThatThrownBy(failed::join)
+                    .isInstanceOf(CompletionException.class)
+                    .hasCauseInstanceOf(IOException.class)
+                    .hasRootCauseMessage("logo missing");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void renderAsyncStreamsIntoSink() throws Exception {
+        PDFQuillTemplate template = PDFQuill.builder().buildTemplate();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+        try {
+            template.renderAsync(quill -> quill.printLine("Streamed async"), sink, executor).get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        try (PDDocument document = PDDocument.load(sink.toByteArray())) {
+            assertThat(new PDFTextStripper().getText(document)).contains("Streamed async");
+        }
+    }
+
+    private static float fontSizeOfFirstGlyph(byte[] pdfBytes) throws Exception {
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            List<Float> sizes = new ArrayList<>();
+            PDFTextStripper stripper = new PDFTextStripper() {
+                @Override
+                protected void writeString(String text, List<org.apache.pdfbox.text.TextPosition> textPositions) {
+                    sizes.add(textPositions.get(0).getFontSizeInPt());
+                }
+            };
+            stripper.getText(document);
+            return sizes.get(0);
+        }
+    }
+}
@@ -1,23 +1,44 @@
 package org.pdfquill;
 
+import com.google.zxing.common.BitMatrix;
+import org.apache.pdfbox.cos.COSName;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.Test;
+import org.pdfquill.barcode.BarcodeRenderMode;
+import org.pdfquill.barcode.BarcodeType;
 import org.pdfquill.exceptions.PDFGenerationException;
+import org.pdfquill.formatter.ContentFormatter;
 import org.pdfquill.paper.PaperType;
 import org.pdfquill.settings.font.FontSettings;
 import org.pdfquill.settings.font.FontType;
 import org.pdfquill.settings.PageLayout;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class PDFQuillTest {
 
@@ -93,6 +114,206 @@ class PDFQuillTest {
         }
     }
 
+    @Test
+    void writeToStreamsDocumentAndLeavesStreamOpen() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Streamed");
+        TrackingOutputStream out = new TrackingOutputStream();
+
+        quill.writeTo(out);
+
+        assertThat(out.closed).isFalse();
+        try (PDDocument document = PDDocument.load(out.toByteArray())) {
+            assertThat(new PDFTextStripper().getText(document)).contains("Streamed");
+        }
+        assertThatThrownBy(quill::getPDFBytes)
+                .isInstanceOf(PDFGenerationException.class)
+                .hasMessageContaining("not available");
+    }
+
+    @Test
+    void writePDFReplacesExistingFileWithoutLeavingTemporaryFiles() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Replaced");
+
+        Path directory = Files.createTempDirectory("pdf-quill-tests");
+        Path destination = directory.resolve("existing.pdf");
+        Files.write(destination, new byte[]{1, 2, 3});
+
+        try {
+            quill.writePDF(destination);
+
+            try (Stream<Path> files = Files.list(directory)) {
+                assertThat(files).containsExactly(destination);
+            }
+            try (PDDocument document = PDDocument.load(destination.toFile())) {
+                assertThat(new PDFTextStripper().getText(document)).contains("Replaced");
+            }
+            assertThat(quill.getPDFBytes()).isEqualTo(Files.readAllBytes(destination));
+        } finally {
+            Files.deleteIfExists(destination);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void writePDFKeepsPermissionsOfExistingFileAndDefaultsForNewOnes() throws Exception {
+        Path directory = Files.createTempDirectory("pdf-quill-tests");
+        assumeTrue(Files.getFileAttributeView(directory, PosixFileAttributeView.class) != null);
+        Path existing = directory.resolve("existing.pdf");
+        Files.write(existing, new byte[]{1, 2, 3});
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(existing, permissions);
+        Path reference = Files.createFile(directory.resolve("reference"));
+        Path created = directory.resolve("created.pdf");
+
+        try {
+            PDFQuill first = new PDFQuill();
+            first.printLine("Existing");
+            first.writePDF(existing);
+            PDFQuill second = new PDFQuill();
+            second.printLine("Created");
+            second.writePDF(created);
+
+            assertThat(Files.getPosixFilePermissions(existing)).isEqualTo(permissions);
+            assertThat(Files.getPosixFilePermissions(created)).isEqualTo(Files.getPosixFilePermissions(reference));
+        } finally {
+            Files.deleteIfExists(existing);
+            Files.deleteIfExists(created);
+            Files.deleteIfExists(reference);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void bytesOfAWrittenPDFAreReadBackFromItsFile() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Read back");
+        Path directory = Files.createTempDirectory("pdf-quill-tests");
+        Path destination = directory.resolve("deleted.pdf");
+
+        try {
+            quill.writePDF(destination);
+            Files.delete(destination);
+
+            assertThatThrownBy(quill::getPDFBytes)
+                    .isInstanceOf(PDFGenerationException.class)
+                    .hasMessageContaining("no longer exists");
+        } finally {
+            Files.deleteIfExists(destination);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    void writeToChannelStreamsDocument() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Channel");
+        ByteArrayOutputStream sink = new ByteArrayOutputStream();
+
+        try (WritableByteChannel channel = Channels.newChannel(sink)) {
+            quill.writeTo(channel);
+            assertThat(channel.isOpen()).isTrue();
+        }
+
+        try (PDDocument document = PDDocument.load(sink.toByteArray())) {
+            assertThat(new PDFTextStripper().getText(document)).contains("Channel");
+        }
+    }
+
+    @Test
+    void writeToAfterFinalisationWritesCachedBytes() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Cached");
+        byte[] bytes = quill.getPDFBytes();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        quill.writeTo(out);
+
+        assertThat(out.toByteArray()).isEqualTo(bytes);
+    }
+
+    @Test
+    void getPDFBufferSharesCachedBytesReadOnly() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Buffered");
+
+        ByteBuffer first = quill.getPDFBuffer();
+        ByteBuffer second = quill.getPDFBuffer();
+
+        assertThat(first.isReadOnly()).isTrue();
+        assertThat(first.position()).isZero();
+        first.get(new byte[10]);
+        assertThat(second.position()).isZero();
+        assertThat(second.remaining()).isEqualTo(first.limit());
+
+        byte[] copy = new byte[second.remaining()];
+        second.get(copy);
+        assertThat(copy).isEqualTo(quill.getPDFBytes());
+    }
+
+    @Test
+    void transferToKeepsDocumentAvailable() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Transferred");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        quill.transferTo(out);
+        quill.transferTo(out);
+
+        byte[] bytes = quill.getPDFBytes();
+        assertThat(out.size()).isEqualTo(bytes.length * 2);
+        assertThat(Arrays.copyOf(out.toByteArray(), bytes.length)).isEqualTo(bytes);
+    }
+
+    @Test
+    void writeBase64ToStreamsEncodedDocument() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Encoded");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        quill.writeBase64To(out);
+
+        byte[] decoded = Base64.getDecoder().decode(out.toByteArray());
+        try (PDDocument document = PDDocument.load(decoded)) {
+            assertThat(new PDFTextStripper().getText(document)).contains("Encoded");
+        }
+    }
+
+    @Test
+    void writeBase64ToWriterProducesDecodableText() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Encoded");
+        String expected = quill.getBase64PDFBytes();
+        StringWriter writer = new StringWriter();
+
+        quill.writeBase64To(writer);
+
+        assertThat(writer.toString()).isEqualTo(expected);
+
+        PDFQuill streamed = new PDFQuill();
+        streamed.printLine("Encoded");
+        StringWriter streamedWriter = new StringWriter();
+        streamed.writeBase64To(streamedWriter);
+
+        try (PDDocument document = PDDocument.load(Base64.getDecoder().decode(streamedWriter.toString()))) {
+            assertThat(new PDFTextStripper().getText(document)).contains("Encoded");
+        }
+    }
+
+    @Test
+    void renderAsyncFinalisesOnExecutor() throws Exception {
+        PDFQuill quill = new PDFQuill();
+        quill.printLine("Later");
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            byte[] pdfBytes = quill.renderAsync(executor).get();
+            assertThat(pdfBytes).isEqualTo(quill.getPDFBytes());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     void builderRejectsNullPaperType() {
         PDFQuill.Builder builder = PDFQuill.builder();
@@ -149,6 +370,43 @@ class PDFQuillTest {
         }
     }
 
+    @Test
+    void vectorBarcodeModeDrawsWithoutImages() throws Exception {
+        PDFQuill quill = PDFQuill.builder()
+                .withPaperType(PaperType.THERMAL_80MM)
+                .withBarcodeRenderMode(BarcodeRenderMode.VECTOR)
+                .build();
+
+        quill.printBarcode("123456789012", BarcodeType.CODE128);
+        quill.printBarcode("https://example.com", BarcodeType.QRCODE);
+
+        try (PDDocument document = PDDocument.load(quill.getPDFBytes())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            assertThat(document.getPage(0).getResources().getXObjectNames()).isEmpty();
+        }
+    }
+
+    @Test
+    void moduleRasterBarcodeModeEmbedsOnePixelPerModule() throws Exception {
+        PDFQuill quill = PDFQuill.builder()
+                .withBarcodeRenderMode(BarcodeRenderMode.MODULE_RASTER)
+                .build();
+
+        quill.printBarcode("https://example.com", BarcodeType.QRCODE);
+
+        try (PDDocument document = PDDocument.load(quill.getPDFBytes())) {
+            PDResources resources = document.getPage(0).getResources();
+            COSName imageName = resources.getXObjectNames().iterator().next();
+            PDImageXObject image = (PDImageXObject) resources.getXObject(imageName);
+            BitMatrix matrix = ContentFormatter.createBarcodeMatrix("https://example.com", BarcodeType.QRCODE, 0, 0);
+            assertThat(image.getWidth()).isEqualTo(matrix.getWidth());
+            assertThat(image.getHeight()).isEqualTo(matrix.getHeight());
+            assertThat(image.getBitsPerComponent()).isEqualTo(1);
+            assertThat(image.getInterpolate()).isFalse();
+            assertThat(image.getCOSObject().containsKey(COSName.INTERPOLATE)).isTrue();
+        }
+    }
+
     @Test
     void skipLinesViaFacadeProducesBlankSpace() throws Exception {
         PDFQuill quill = new PDFQuill();
@@ -190,4 +448,14 @@ class PDFQuillTest {
             return yPositions;
         }
     }
+
+    private static final class TrackingOutputStream extends ByteArrayOutputStream {
+        private boolean closed;
+
+        @Override
+        public void close() throws IOException {
+            this.closed = true;
+            super.close();
+        }
+    }
 }
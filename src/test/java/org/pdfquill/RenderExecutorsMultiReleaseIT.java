@@ -0,0 +1,39 @@
+package org.pdfquill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the Java 21 classes of the multi-release JAR. Multi-release overlays only apply to a JAR, so the java21
+ * profile runs this test against the packaged artifact rather than {@code target/classes}.
+ */
+class RenderExecutorsMultiReleaseIT {
+
+    @Test
+    void executorsRunTasksOnNamedVirtualThreads() throws Exception {
+        assertThat(RenderExecutors.usesVirtualThreads()).isTrue();
+
+        ExecutorService executor = RenderExecutors.newExecutor();
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+            assertThat(thread.getName()).startsWith("pdf-quill-render-");
+            // the tests are compiled for Java 8, which has no Thread.isVirtual()
+            assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(Boolean.TRUE);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void defaultExecutorRunsOnVirtualThreads() throws Exception {
+        Thread thread = RenderExecutors.defaultExecutor().submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+        assertThat(Thread.class.getMethod("isVirtual").invoke(thread)).isEqualTo(Boolean.TRUE);
+    }
+}
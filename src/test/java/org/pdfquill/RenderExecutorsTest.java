@@ -0,0 +1,48 @@
+package org.pdfquill;
+
+import org.junit.jupiter.api.Test;
+import org.pdfquill.paper.PaperType;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RenderExecutorsTest {
+
+    @Test
+    void executorsRunTasksOnNamedDaemonThreads() throws Exception {
+        ExecutorService executor = RenderExecutors.newExecutor();
+        try {
+            Thread thread = executor.submit(Thread::currentThread).get(10, TimeUnit.SECONDS);
+
+            assertThat(thread.getName()).startsWith("pdf-quill-render-");
+            assertThat(thread.isDaemon()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void defaultExecutorIsSharedAndRendersTemplates() throws Exception {
+        PDFQuillTemplate template = PDFQuill.builder().withPaperType(PaperType.THERMAL_80MM).buildTemplate();
+
+        byte[] pdfBytes = template.renderAsync(quill -> quill.printLine("Default executor"))
+                .get(30, TimeUnit.SECONDS);
+
+        assertThat(RenderExecutors.defaultExecutor()).isSameAs(RenderExecutors.defaultExecutor());
+        assertThat(new String(pdfBytes, 0, 5, "US-ASCII")).isEqualTo("%PDF-");
+    }
+
+    @Test
+    void defaultExecutorCannotBeShutDown() throws Exception {
+        ExecutorService executor = RenderExecutors.defaultExecutor();
+
+        assertThatThrownBy(executor::shutdown).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(executor::shutdownNow).isInstanceOf(UnsupportedOperationException.class);
+        assertThat(executor.isShutdown()).isFalse();
+        assertThat(executor.submit(() -> "still running").get(10, TimeUnit.SECONDS)).isEqualTo("still running");
+    }
+}
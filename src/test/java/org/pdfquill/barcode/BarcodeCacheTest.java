@@ -0,0 +1,79 @@
+package org.pdfquill.barcode;
+
+import com.google.zxing.common.BitMatrix;
+import org.junit.jupiter.api.Test;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.exceptions.BarcodeGenerationException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BarcodeCacheTest {
+
+    @Test
+    void repeatedLookupsReturnTheCachedMatrix() {
+        BarcodeCache cache = new BarcodeCache();
+
+        BitMatrix first = cache.getMatrix("https://example.com", BarcodeType.QRCODE, 0, 0);
+        BitMatrix second = cache.getMatrix("https://example.com", BarcodeType.QRCODE, 0, 0);
+        BitMatrix resized = cache.getMatrix("https://example.com", BarcodeType.QRCODE, 100, 100);
+
+        assertThat(second).isSameAs(first);
+        assertThat(resized).isNotSameAs(first);
+        assertThat(cache.getHitCount()).isEqualTo(1);
+        assertThat(cache.getMissCount()).isEqualTo(2);
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvictedFirst() {
+        BarcodeCache cache = new BarcodeCache(2, BarcodeCache.DEFAULT_MAX_WEIGHT);
+
+        BitMatrix a = cache.getMatrix("A", BarcodeType.CODE128, 0, 0);
+        cache.getMatrix("B", BarcodeType.CODE128, 0, 0);
+        cache.getMatrix("A", BarcodeType.CODE128, 0, 0);
+        cache.getMatrix("C", BarcodeType.CODE128, 0, 0);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getMatrix("A", BarcodeType.CODE128, 0, 0)).isSameAs(a);
+        long misses = cache.getMissCount();
+        cache.getMatrix("B", BarcodeType.CODE128, 0, 0);
+        assertThat(cache.getMissCount()).isEqualTo(misses + 1);
+    }
+
+    @Test
+    void weightLimitBoundsRetainedMemory() {
+        BarcodeCache cache = new BarcodeCache(100, 20_000);
+
+        cache.getMatrix("first", BarcodeType.QRCODE, 350, 350);
+        cache.getMatrix("second", BarcodeType.QRCODE, 350, 350);
+
+        assertThat(cache.getWeight()).isLessThanOrEqualTo(20_000);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void encodingFailuresAreNotCached() {
+        BarcodeCache cache = new BarcodeCache();
+
+        assertThatThrownBy(() -> cache.getMatrix("not-digits", BarcodeType.EAN13, 0, 0))
+                .isInstanceOf(BarcodeGenerationException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void cacheIsSharedAcrossPrinters() {
+        BarcodeCache cache = new BarcodeCache();
+
+        for (int i = 0; i < 3; i++) {
+            PDFQuill quill = PDFQuill.builder().withBarcodeCache(cache).build();
+            quill.printBarcode("https://example.com", BarcodeType.QRCODE);
+            assertThat(quill.getPDFBytes()).isNotEmpty();
+        }
+
+        assertThat(cache.getMissCount()).isEqualTo(1);
+        assertThat(cache.getHitCount()).isEqualTo(2);
+    }
+}
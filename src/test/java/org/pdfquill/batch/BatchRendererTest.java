@@ -0,0 +1,116 @@
+package org.pdfquill.batch;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.pdfquill.DocumentSpec;
+import org.pdfquill.PDFQuill;
+import org.pdfquill.PDFQuillTemplate;
+import org.pdfquill.paper.PaperType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BatchRendererTest {
+    private final PDFQuillTemplate template = PDFQuill.builder().withPaperType(PaperType.THERMAL_80MM).buildTemplate();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void inputOrderIsPreservedAndWindowIsBounded() throws Exception {
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        BatchRenderer renderer = BatchRenderer.builder(template, executor).withMaxInFlight(3).build();
+        List<BatchResult> results = new ArrayList<>();
+
+        BatchReport report = renderer.render(IntStream.range(0, 20).mapToObj(i -> (DocumentSpec) quill -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                sleep((20 - i) % 4 * 5L);
+                quill.printLine("Receipt " + i);
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }), results::add);
+
+        assertThat(results).extracting(BatchResult::getIndex)
+                .containsExactlyElementsOf(() -> IntStream.range(0, 20).mapToObj(i -> (long) i).iterator());
+        assertThat(maxConcurrent.get()).isLessThanOrEqualTo(3);
+        assertThat(report.getMaxInFlight()).isEqualTo(3);
+        assertThat(report.getDocumentCount()).isEqualTo(20);
+        assertThat(report.getFailureCount()).isZero();
+        assertThat(report.getLatencyPercentile(100)).isGreaterThanOrEqualTo(report.getLatencyPercentile(50));
+        assertThat(report.getThroughput()).isPositive();
+        assertThat(textOf(results.get(7))).contains("Receipt 7");
+    }
+
+    @Test
+    void completionOrderDeliversFastDocumentsFirst() throws Exception {
+        BatchRenderer renderer = BatchRenderer.builder(template, executor)
+                .withMaxInFlight(2)
+                .withOrder(BatchOrder.COMPLETION)
+                .build();
+        List<Long> indices = new ArrayList<>();
+
+        List<DocumentSpec> specs = new ArrayList<>();
+        specs.add(quill -> {
+            sleep(300);
+            quill.printLine("Slow");
+        });
+        specs.add(quill -> quill.printLine("Fast"));
+
+        BatchReport report = renderer.render(specs, result -> indices.add(result.getIndex()));
+
+        assertThat(indices).containsExactly(1L, 0L);
+        assertThat(report.getMaxPendingResults()).isZero();
+    }
+
+    @Test
+    void failuresAreReportedWithoutAbortingTheBatch() throws Exception {
+        BatchRenderer renderer = BatchRenderer.builder(template, executor).build();
+        List<BatchResult> results = new ArrayList<>();
+
+        List<DocumentSpec> specs = new ArrayList<>();
+        specs.add(quill -> quill.printLine("First"));
+        specs.add(quill -> {
+            throw new IOException("image missing");
+        });
+        specs.add(quill -> quill.printLine("Third"));
+
+        BatchReport report = renderer.render(specs, results::add);
+
+        assertThat(report.getDocumentCount()).isEqualTo(3);
+        assertThat(report.getFailureCount()).isEqualTo(1);
+        assertThat(results.get(1).isSuccess()).isFalse();
+        assertThat(results.get(1).getFailure()).hasMessage("image missing");
+        assertThat(results.get(1).getPdfBytes()).isNull();
+        assertThat(textOf(results.get(2))).contains("Third");
+    }
+
+    private static String textOf(BatchResult result) throws IOException {
+        try (PDDocument document = PDDocument.load(result.getPdfBytes())) {
+            return new PDFTextStripper().getText(document);
+        }
+    }
+
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package org.pdfquill.formatter;
 
+import com.google.zxing.common.BitMatrix;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.junit.jupiter.api.Test;
 import org.pdfquill.barcode.BarcodeType;
+import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.PageLayout;
 import org.pdfquill.settings.font.FontSettings;
 import org.pdfquill.settings.font.FontUtils;
 import org.pdfquill.writer.SplitParts;
@@ -30,6 +33,23 @@ class ContentFormatterTest {
         assertThat(lines).containsExactly("Hello world", "test");
     }
 
+    @Test
+    void fixedPitchWrappingMatchesMeasuredWrapping() throws IOException {
+        String text = "Total EUR 12,90 paid by card ending 4242 at the main store counter";
+        // the euro sign is outside the dense Latin-1 range, forcing the measured engine with identical advances
+        String measuredText = text.replace("EUR", "\u20ac\u20ac\u20ac");
+        float maxWidth = new PageLayout(PaperType.THERMAL_58MM).getMaxLineWidth();
+
+        List<String> fixedPitchLines = ContentFormatter.formatTextToLines(text, PDType1Font.COURIER, 10, maxWidth, false);
+        List<String> measuredLines = ContentFormatter.formatTextToLines(measuredText, PDType1Font.COURIER, 10, maxWidth, false);
+
+        assertThat(fixedPitchLines).hasSizeGreaterThan(1);
+        assertThat(measuredLines).hasSameSizeAs(fixedPitchLines);
+        for (int i = 0; i < fixedPitchLines.size(); i++) {
+            assertThat(measuredLines.get(i).replace("\u20ac\u20ac\u20ac", "EUR")).isEqualTo(fixedPitchLines.get(i));
+        }
+    }
+
     @Test
     void splitTextProducesTrimmedTail() throws IOException {
         FontSettings fontSettings = new FontSettings();
@@ -52,6 +72,18 @@ class ContentFormatterTest {
         assertThat(index).isZero();
     }
 
+    @Test
+    void findWrapIndexOnRangeReturnsAbsoluteIndex() throws IOException {
+        String text = "skip|Hello world test";
+        float maxWidth = FontUtils.getTextWidth("Hello world", PDType1Font.COURIER, 12) + 0.1f;
+
+        int index = ContentFormatter.findWrapIndex(text, 5, text.length(), PDType1Font.COURIER, 12, maxWidth);
+
+        assertThat(index).isEqualTo(text.indexOf("world"));
+        assertThat(ContentFormatter.indexBeforeTrailingWhitespace(text, 5, index)).isEqualTo(text.indexOf(" world"));
+        assertThat(ContentFormatter.indexAfterLeadingWhitespace("a   b", 1, 5)).isEqualTo(4);
+    }
+
     @Test
     void formatTextBuilderSplitsFragmentsAndKeepsFontSettings() throws IOException {
         FontSettings fontSettings = new FontSettings();
@@ -77,4 +109,19 @@ class ContentFormatterTest {
                     "Unexpected failure when generating barcode image");
         }
     }
+
+    @Test
+    void createBarcodeImageWritesMatrixModulesAsBinaryPixels() throws Exception {
+        BitMatrix matrix = ContentFormatter.createBarcodeMatrix("https://example.com", BarcodeType.QRCODE, 100, 100);
+
+        BufferedImage image = ContentFormatter.createBarcodeImage("https://example.com", BarcodeType.QRCODE, 100, 100);
+
+        assertThat(image.getType()).isEqualTo(BufferedImage.TYPE_BYTE_BINARY);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int expected = matrix.get(x, y) ? 0xFF000000 : 0xFFFFFFFF;
+                assertThat(image.getRGB(x, y)).as("pixel %d,%d", x, y).isEqualTo(expected);
+            }
+        }
+    }
 }
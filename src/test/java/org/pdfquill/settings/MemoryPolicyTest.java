@@ -0,0 +1,61 @@
+package org.pdfquill.settings;
+
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.pdfquill.PDFQuill;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MemoryPolicyTest {
+
+    @Test
+    void policiesMapToMemoryUsageSettings() {
+        MemoryUsageSetting heap = MemoryPolicy.heapOnly().toMemoryUsageSetting();
+        assertThat(heap.useMainMemory()).isTrue();
+        assertThat(heap.useTempFile()).isFalse();
+
+        MemoryUsageSetting mixed = MemoryPolicy.mixed(1024).toMemoryUsageSetting();
+        assertThat(mixed.useMainMemory()).isTrue();
+        assertThat(mixed.useTempFile()).isTrue();
+        assertThat(mixed.getMaxMainMemoryBytes()).isEqualTo(1024);
+
+        MemoryUsageSetting tempFile = MemoryPolicy.tempFile().toMemoryUsageSetting();
+        assertThat(tempFile.useMainMemory()).isFalse();
+        assertThat(tempFile.useTempFile()).isTrue();
+    }
+
+    @Test
+    void mixedPolicyRequiresPositiveBudget() {
+        assertThatThrownBy(() -> MemoryPolicy.mixed(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("maxHeapBytes");
+    }
+
+    @Test
+    void tempFilePolicyProducesSameDocumentAndCleansUp(@TempDir Path scratch) throws Exception {
+        PDFQuill quill = PDFQuill.builder()
+                .withMemoryPolicy(MemoryPolicy.tempFile().withTempDirectory(scratch))
+                .build();
+        for (int i = 0; i < 200; i++) {
+            quill.printLine("Scratch line " + i);
+        }
+
+        byte[] pdfBytes = quill.getPDFBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            String text = new PDFTextStripper().getText(document);
+            assertThat(text).contains("Scratch line 0").contains("Scratch line 199");
+        }
+        try (Stream<Path> leftovers = Files.list(scratch)) {
+            assertThat(leftovers).isEmpty();
+        }
+    }
+}
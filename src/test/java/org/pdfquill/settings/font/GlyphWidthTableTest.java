@@ -0,0 +1,78 @@
+package org.pdfquill.settings.font;
+
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GlyphWidthTableTest {
+
+    @Test
+    void widthsMatchPdfBoxMeasurements() throws IOException {
+        String[] samples = {"", "Hello world", "Preço: R$ 29,90 (promo) – 50% off €", "çãõáéíóú ÇÃÕ ß"};
+        PDType1Font[] fonts = {PDType1Font.COURIER, PDType1Font.HELVETICA_BOLD, PDType1Font.TIMES_ITALIC};
+
+        for (PDType1Font font : fonts) {
+            GlyphWidthTable table = GlyphWidthTable.of(font);
+            for (String sample : samples) {
+                assertThat(table.getStringWidth(sample)).isEqualTo(font.getStringWidth(sample));
+                assertThat(table.getTextWidth(sample, 11)).isEqualTo(font.getStringWidth(sample) * 11 / 1000f);
+            }
+        }
+    }
+
+    @Test
+    void tablesAreBuiltOncePerFont() {
+        assertThat(GlyphWidthTable.of(PDType1Font.COURIER)).isSameAs(GlyphWidthTable.of(PDType1Font.COURIER));
+        assertThat(GlyphWidthTable.of(PDType1Font.COURIER)).isNotSameAs(GlyphWidthTable.of(PDType1Font.COURIER_BOLD));
+    }
+
+    @Test
+    void tablesOfFontsBuiltByCallersAreReleasedWithTheFont() throws Exception {
+        COSDictionary dictionary = new COSDictionary();
+        dictionary.setItem(COSName.TYPE, COSName.FONT);
+        dictionary.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        dictionary.setName(COSName.BASE_FONT, "Helvetica");
+        PDType1Font font = new PDType1Font(dictionary);
+        assertThat(font.isStandard14()).isTrue();
+        assertThat(GlyphWidthTable.of(font)).isNotSameAs(GlyphWidthTable.of(PDType1Font.HELVETICA));
+
+        WeakReference<PDType1Font> reference = new WeakReference<>(font);
+        font = null;
+        for (int attempt = 0; attempt < 50 && reference.get() != null; attempt++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(reference.get()).isNull();
+    }
+
+    @Test
+    void detectsFixedPitchFonts() {
+        GlyphWidthTable courier = GlyphWidthTable.of(PDType1Font.COURIER);
+        GlyphWidthTable helvetica = GlyphWidthTable.of(PDType1Font.HELVETICA);
+
+        assertThat(courier.isFixedPitch()).isTrue();
+        assertThat(courier.isFixedPitch("Plain receipt line", 0, 18)).isTrue();
+        assertThat(courier.isFixedPitch("Total \u20ac 10", 0, 10)).isFalse();
+        assertThat(courier.getFixedPitchCapacity(10, 60.5f)).isEqualTo(10);
+        assertThat(helvetica.isFixedPitch()).isFalse();
+        assertThat(helvetica.getFixedPitchCapacity(10, 60.5f)).isZero();
+    }
+
+    @Test
+    void unencodableCharactersFailLikeThePdfBoxFont() {
+        GlyphWidthTable table = GlyphWidthTable.of(PDType1Font.HELVETICA);
+
+        assertThatThrownBy(() -> table.getStringWidth("中"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> table.getCharWidth('\u0001', 12))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,94 @@
+package org.pdfquill.writer;
+
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContentStreamWriterTest {
+
+    @Test
+    void numbersAreWrittenWithFixedPrecisionAndNoTrailingZeros() throws Exception {
+        try (ContentStreamWriter writer = new ContentStreamWriter()) {
+            writer.beginPage();
+
+            for (float value : new float[]{0f, -0f, 12f, 12.5f, 0.1f, -3.25f, 841.8898f, 1.00004f, -0.00004f, 2e9f}) {
+                writer.writeNumber(value);
+            }
+
+            assertThatThrownBy(() -> writer.writeNumber(Float.NaN)).isInstanceOf(IllegalArgumentException.class);
+            assertThat(finishAndRead(writer)).isEqualTo("0 0 12 12.5 0.1 -3.25 841.8898 1 0 2000000000 ");
+        }
+    }
+
+    private static String finishAndRead(ContentStreamWriter writer) throws IOException {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            writer.finishPage(false).attachTo(document, page);
+            try (InputStream contents = page.getContents()) {
+                return new String(IOUtils.toByteArray(contents), StandardCharsets.US_ASCII);
+            }
+        }
+    }
+
+    @Test
+    void finishedPageCarriesParseableCompressedContent() throws Exception {
+        PDType1Font font = PDType1Font.COURIER;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            try (ContentStreamWriter writer = new ContentStreamWriter()) {
+                writer.beginPage();
+                writer.beginText();
+                writer.setFont(font, 12);
+                writer.newLineAtOffset(40, 700);
+                writer.showText("Total (due): 10\\", font);
+                writer.endText();
+                writer.finishPage(true).attachTo(document, page);
+            }
+            document.addPage(page);
+            document.save(out);
+        }
+
+        try (PDDocument document = PDDocument.load(out.toByteArray())) {
+            PDPage page = document.getPage(0);
+            assertThat(page.getCOSObject().getDictionaryObject(COSName.CONTENTS).toString()).contains("FlateDecode");
+            PDFStreamParser parser = new PDFStreamParser(page);
+            parser.parse();
+            assertThat(parser.getTokens().stream()
+                    .filter(token -> token instanceof Operator)
+                    .map(token -> ((Operator) token).getName())
+                    .collect(Collectors.toList()))
+                    .containsExactly("BT", "Tf", "Td", "Tj", "ET");
+            assertThat(new PDFTextStripper().getText(document)).contains("Total (due): 10\\");
+        }
+    }
+
+    @Test
+    void operatorsAreCheckedAgainstTheTextObject() throws Exception {
+        try (ContentStreamWriter writer = new ContentStreamWriter()) {
+            writer.beginPage();
+
+            assertThatThrownBy(writer::newLine).isInstanceOf(IllegalStateException.class);
+            writer.beginText();
+            assertThatThrownBy(writer::saveGraphicsState).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> writer.finishPage(true)).isInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> writer.showText("中", PDType1Font.COURIER))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -1,15 +1,37 @@
 package org.pdfquill.writer;
 
+import com.google.zxing.common.BitMatrix;
+import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdfparser.PDFStreamParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.junit.jupiter.api.Test;
 import org.pdfquill.paper.PaperType;
+import org.pdfquill.settings.MemoryPolicy;
 import org.pdfquill.settings.PageLayout;
+import org.pdfquill.settings.font.FontSettings;
 import org.pdfquill.settings.font.FontType;
 
+import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.assertj.core.api.Assertions.within;
 
 class PDFWriterTest {
@@ -84,6 +106,446 @@ class PDFWriterTest {
         }
     }
 
+    @Test
+    void writeFromTextLinesWrapsFragmentsWithoutLosingWords() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.THERMAL_58MM);
+        PDFWriter writer = new PDFWriter(layout);
+        FontSettings boldSettings = new FontSettings();
+        boldSettings.setSelectedFont(boldSettings.getFontByFontType(FontType.BOLD));
+
+        TextBuilder builder = new TextBuilder()
+                .addText("Subtotal:   ")
+                .addText("forty two reais and ninety cents", boldSettings)
+                .addText(" paid in cash at the front desk");
+        writer.writeFromTextLines(builder);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            String text = new PDFTextStripper().getText(document);
+            assertThat(text.split("\\R")).hasSizeGreaterThan(2);
+            assertThat(text.replaceAll("\\s+", " ").trim())
+                    .isEqualTo("Subtotal: forty two reais and ninety cents paid in cash at the front desk");
+        }
+    }
+
+    @Test
+    void cutSignalOnStandardPaperDoesNotLeaveTrailingBlankPage() throws Exception {
+        PDFWriter writer = new PDFWriter(new PageLayout(PaperType.A4));
+
+        writer.writeLine("Receipt body", FontType.DEFAULT);
+        writer.writeCutSignal();
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            assertThat(new PDFTextStripper().getText(document)).contains("Receipt body");
+        }
+    }
+
+    @Test
+    void pagesLeftEmptyBySkippedLinesAreDropped() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.A4);
+        PDFWriter writer = new PDFWriter(layout);
+
+        int linesPerPage = (int) Math.floor(layout.getPageWritingHeight() / layout.getLineHeight());
+
+        writer.writeLine("Top", FontType.DEFAULT);
+        writer.skipLines(linesPerPage * 2);
+        writer.writeLine("Bottom", FontType.DEFAULT);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            assertThat(document.getNumberOfPages()).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void imageOnlyPagesAreKept() throws Exception {
+        PDFWriter writer = new PDFWriter(new PageLayout(PaperType.A4));
+
+        writer.writeImage(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), 10, 10);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void identicalImagesAreEmbeddedOnce() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.A4);
+        PDFWriter writer = new PDFWriter(layout);
+        BufferedImage logo = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        logo.setRGB(3, 3, 0xFF0000);
+        BufferedImage sameLogo = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        sameLogo.setRGB(3, 3, 0xFF0000);
+        BufferedImage otherImage = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+
+        writer.writeImage(logo, 10, 10);
+        writer.skipLines((int) (layout.getPageWritingHeight() / layout.getLineHeight()));
+        writer.writeImage(sameLogo, 10, 10);
+        writer.writeImage(otherImage, 10, 10);
+
+        assertThat(writer.getReusedImageCount()).isEqualTo(1);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            assertThat(document.getNumberOfPages()).isEqualTo(2);
+            Set<COSBase> imageStreams = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (PDPage page : document.getPages()) {
+                PDResources resources = page.getResources();
+                for (COSName name : resources.getXObjectNames()) {
+                    imageStreams.add(resources.getXObject(name).getCOSObject());
+                }
+            }
+            assertThat(imageStreams).hasSize(2);
+        }
+    }
+
+    @Test
+    void writeBarcodeMergesModulesIntoRectangles() throws Exception {
+        PDFWriter writer = new PDFWriter(new PageLayout(PaperType.A4));
+        BitMatrix matrix = new BitMatrix(6, 4);
+        for (int y = 0; y < 3; y++) {
+            matrix.setRegion(0, y, 2, 1);
+            matrix.set(4, y);
+        }
+        matrix.set(5, 3);
+
+        writer.writeBarcode(matrix, 60, 40);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            PDPage page = document.getPage(0);
+            assertThat(page.getResources().getXObjectNames()).isEmpty();
+            PDFStreamParser parser = new PDFStreamParser(page);
+            parser.parse();
+            long rectangles = parser.getTokens().stream()
+                    .filter(token -> token instanceof Operator && "re".equals(((Operator) token).getName()))
+                    .count();
+            assertThat(rectangles).isEqualTo(3);
+        }
+    }
+
+    @Test
+    void thermalPagesAreCroppedToWrittenHeight() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.THERMAL_80MM);
+        PDFWriter writer = new PDFWriter(layout);
+
+        writer.writeLine("First", FontType.DEFAULT);
+        writer.writeLine("Second", FontType.DEFAULT);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            PDRectangle cropBox = document.getPage(0).getCropBox();
+            assertThat(cropBox.getUpperRightY()).isCloseTo(layout.getPageHeight(), within(0.01f));
+            assertThat(cropBox.getHeight()).isCloseTo(layout.getLineHeight() * 2, within(0.01f));
+        }
+    }
+
+    @Test
+    void incrementalFlushCropsEachThermalPageToItsOwnHeight() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.THERMAL_80MM);
+        PDFWriter writer = new PDFWriter(layout, MemoryPolicy.tempFile(), true);
+
+        int linesPerPage = (int) Math.floor(layout.getPageWritingHeight() / layout.getLineHeight());
+        for (int i = 0; i < linesPerPage + 3; i++) {
+            writer.writeLine("Line " + i, FontType.DEFAULT);
+        }
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            assertThat(document.getNumberOfPages()).isEqualTo(2);
+            PDRectangle firstCropBox = document.getPage(0).getCropBox();
+            PDRectangle lastCropBox = document.getPage(1).getCropBox();
+            assertThat(firstCropBox.getHeight()).isGreaterThan(layout.getPageWritingHeight() - layout.getLineHeight());
+            assertThat(lastCropBox.getUpperRightY()).isCloseTo(layout.getPageHeight(), within(0.01f));
+            assertThat(lastCropBox.getHeight()).isLessThan(layout.getLineHeight() * 6);
+        }
+    }
+
+    @Test
+    void finishedPagesAreRenderedBeforeSaveAndCroppedToTheLastHeight() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.THERMAL_80MM);
+        PDFWriter writer = new PDFWriter(layout, MemoryPolicy.tempFile());
+
+        int linesPerPage = (int) Math.floor(layout.getPageWritingHeight() / layout.getLineHeight());
+        for (int i = 0; i < linesPerPage * 4 + 3; i++) {
+            writer.writeLine("Line " + i, FontType.DEFAULT);
+        }
+
+        assertThat(writer.getPendingPages().getPages()).hasSize(1);
+
+        try (PDDocument document = PDDocument.load(writer.saveAndGetBytes())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(5);
+            for (PDPage page : document.getPages()) {
+                assertThat(page.getCropBox().getHeight()).isLessThan(layout.getLineHeight() * 6);
+            }
+        }
+    }
+
+    @Test
+    void textOfAPageSharesOneTextObjectAndMovesRelatively() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.THERMAL_80MM);
+        PDFWriter writer = new PDFWriter(layout);
+        FontSettings boldSettings = new FontSettings();
+        boldSettings.setSelectedFont(boldSettings.getFontByFontType(FontType.BOLD));
+
+        writer.writeLine("First", FontType.DEFAULT);
+        writer.writeLine("Second", FontType.DEFAULT);
+        writer.writeLine("Third", FontType.DEFAULT);
+        writer.writeFromTextLines(new TextBuilder().addText("Total: ").addText("42", boldSettings));
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            PDFStreamParser parser = new PDFStreamParser(document.getPage(0));
+            parser.parse();
+            assertThat(countOperators(parser, "BT")).isEqualTo(1);
+            assertThat(countOperators(parser, "ET")).isEqualTo(1);
+            assertThat(countOperators(parser, "Tm")).isZero();
+            assertThat(countOperators(parser, "Tf")).isEqualTo(2);
+            assertThat(countOperators(parser, "T*")).isEqualTo(3);
+
+            RecordingStripper stripper = new RecordingStripper();
+            stripper.getText(document);
+            java.util.List<Float> yPositions = stripper.getYPositions();
+            assertThat(yPositions).hasSizeGreaterThanOrEqualTo(4);
+            for (int i = 1; i < 4; i++) {
+                assertThat(yPositions.get(i) - yPositions.get(i - 1)).isCloseTo(layout.getLineHeight(), within(0.01f));
+            }
+            assertThat(new PDFTextStripper().getText(document)).contains("Total: 42");
+        }
+    }
+
+    @Test
+    void redundantStateOperatorsAreElidedAndCounted() throws Exception {
+        PDFWriter writer = new PDFWriter(new PageLayout(PaperType.A4));
+        BitMatrix matrix = new BitMatrix(4, 4);
+        matrix.setRegion(0, 0, 2, 4);
+
+        for (int i = 0; i < 20; i++) {
+            writer.writeLine("Line " + i, FontType.DEFAULT);
+        }
+        writer.writeBarcode(matrix, 40, 40);
+        writer.writeLine("After barcode", FontType.DEFAULT);
+
+        byte[] pdfBytes = writer.saveAndGetBytes();
+
+        // 20 repeated fonts after the first, plus the default black fill of the barcode
+        assertThat(writer.getElidedOperatorCount()).isEqualTo(21);
+
+        try (PDDocument document = PDDocument.load(pdfBytes)) {
+            PDFStreamParser parser = new PDFStreamParser(document.getPage(0));
+            parser.parse();
+            assertThat(countOperators(parser, "Tf")).isEqualTo(1);
+            assertThat(countOperators(parser, "g")).isZero();
+            assertThat(countOperators(parser, "BT")).isEqualTo(2);
+            assertThat(new PDFTextStripper().getText(document)).contains("Line 19", "After barcode");
+        }
+    }
+
+    @Test
+    void imagesAreEmbeddedWithThePixelsTheyHadWhenWritten() throws Exception {
+        PDFWriter writer = new PDFWriter(new PageLayout(PaperType.A4));
+        BufferedImage canvas = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        canvas.setRGB(3, 3, 0xFF0000);
+
+        writer.writeImage(canvas, 10, 10);
+        canvas.setRGB(3, 3, 0x0000FF);
+        writer.writeImage(canvas, 10, 10);
+        canvas.setRGB(3, 3, 0x00FF00);
+
+        assertThat(writer.getReusedImageCount()).isZero();
+        try (PDDocument document = PDDocument.load(writer.saveAndGetBytes())) {
+            PDResources resources = document.getPage(0).getResources();
+            List<Integer> pixels = new ArrayList<>();
+            for (COSName name : resources.getXObjectNames()) {
+                pixels.add(((PDImageXObject) resources.getXObject(name)).getImage().getRGB(3, 3) & 0xFFFFFF);
+            }
+            assertThat(pixels).containsExactly(0xFF0000, 0x0000FF);
+        }
+    }
+
+    @Test
+    void layoutIsCapturedInAnImmutableDisplayListBeforeRendering() throws Exception {
+        PageLayout layout = new PageLayout(PaperType.THERMAL_80MM);
+        PDFWriter writer = new PDFWriter(layout);
+        BitMatrix matrix = new BitMatrix(4, 4);
+        matrix.setRegion(0, 0, 2, 4);
+
+        writer.writeLine("Header", FontType.BOLD);
+        writer.writeImage(new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB), 20, 20);
+        writer.writeBarcode(matrix, 40, 40);
+
+        DisplayList displayList = writer.getPendingPages();
+        assertThat(displayList.getPages()).hasSize(1);
+        DisplayPage page = displayList.getPages().get(0);
+        assertThat(page.getWidth()).isEqualTo(layout.getPageWidth());
+        assertThat(page.getItems()).extracting(item -> (Object) item.getClass())
+                .containsExactly(GlyphRun.class, ImageItem.class, BarcodeItem.class);
+        GlyphRun header = (GlyphRun) page.getItems().get(0);
+        assertThat(header.getText()).isEqualTo("Header");
+        assertThat(header.getFont()).isSameAs(layout.getFontSettings().getFontByFontType(FontType.BOLD));
+        assertThat(header.getX()).isEqualTo(layout.getStartX());
+        ImageItem image = (ImageItem) page.getItems().get(1);
+        assertThat(image.getX()).isCloseTo(layout.getStartX() + (layout.getMaxLineWidth() - 20) / 2, within(0.01f));
+        assertThat(page.getItems().get(2)).isInstanceOfSatisfying(BarcodeItem.class,
+                barcode -> assertThat(barcode.getY()).isLessThan(image.getY()));
+        assertThatThrownBy(() -> page.getItems().clear()).isInstanceOf(UnsupportedOperationException.class);
+
+        writer.writeLine("Footer", FontType.DEFAULT);
+        assertThat(page.getItems()).hasSize(3);
+        assertThat(writer.getPendingPages().getPages().get(0).getItems()).hasSize(4);
+
+        try (PDDocument document = PDDocument.load(writer.saveAndGetBytes())) {
+            assertThat(document.getNumberOfPages()).isEqualTo(1);
+            assertThat(new PDFTextStripper().getText(document)).contains("Header", "Footer");
+        }
+    }
+
+    @Test
+    void parallelRenderingProducesTheSameDocumentAsSerialRendering() throws Exception {
+        byte[] serial = writeReport(new PDFWriter(new PageLayout(PaperType.A4), MemoryPolicy.heapOnly(), false, 1));
+        PDFWriter parallelWriter = new PDFWriter(new PageLayout(PaperType.A4), MemoryPolicy.heapOnly(), false, 4);
+        byte[] parallel = writeReport(parallelWriter);
+
+        try (PDDocument expected = PDDocument.load(serial); PDDocument actual = PDDocument.load(parallel)) {
+            assertThat(actual.getNumberOfPages()).isEqualTo(expected.getNumberOfPages()).isGreaterThan(8);
+            for (int i = 0; i < expected.getNumberOfPages(); i++) {
+                PDPage expectedPage = expected.getPage(i);
+                PDPage actualPage = actual.getPage(i);
+                assertThat(readContent(actualPage)).isEqualTo(readContent(expectedPage));
+                assertThat(actualPage.getResources().getFontNames())
+                        .containsExactlyElementsOf(expectedPage.getResources().getFontNames());
+                assertThat(actualPage.getResources().getXObjectNames())
+                        .containsExactlyElementsOf(expectedPage.getResources().getXObjectNames());
+            }
+            assertThat(new PDFTextStripper().getText(actual)).isEqualTo(new PDFTextStripper().getText(expected));
+        }
+        assertThat(parallelWriter.getReusedImageCount()).isEqualTo(9);
+        assertThat(parallelWriter.getElidedOperatorCount()).isPositive();
+        assertThat(encodeThreadNames(4)).isNotEmpty().doesNotHaveDuplicates();
+    }
+
+    @Test
+    void documentsBelowTheParallelThresholdAreEncodedSerially() throws Exception {
+        int pages = DisplayListRenderer.MIN_PARALLEL_PAGES - 1;
+        byte[] serial = writeReport(new PDFWriter(new PageLayout(PaperType.A4), MemoryPolicy.heapOnly(), false, 1),
+                pages);
+        byte[] parallel = writeReport(new PDFWriter(new PageLayout(PaperType.A4), MemoryPolicy.heapOnly(), false, 5),
+                pages);
+
+        assertThat(withoutDocumentId(parallel)).isEqualTo(withoutDocumentId(serial));
+        assertThat(encodeThreadNames(5)).isEmpty();
+        try (PDDocument document = PDDocument.load(parallel)) {
+            assertThat(document.getNumberOfPages()).isEqualTo(pages);
+        }
+    }
+
+    @Test
+    void documentsUsingFontsOutsideTheStandard14AreEncodedSerially() throws Exception {
+        PDType1Font customFont = customFont();
+        assertThat(customFont.isStandard14()).isFalse();
+
+        byte[] serial = writeReport(new PDFWriter(customFontLayout(customFont), MemoryPolicy.heapOnly(), false, 1));
+        byte[] parallel = writeReport(new PDFWriter(customFontLayout(customFont), MemoryPolicy.heapOnly(), false, 6));
+
+        assertThat(withoutDocumentId(parallel)).isEqualTo(withoutDocumentId(serial));
+        assertThat(encodeThreadNames(6)).isEmpty();
+        try (PDDocument document = PDDocument.load(parallel)) {
+            assertThat(document.getNumberOfPages()).isGreaterThanOrEqualTo(DisplayListRenderer.MIN_PARALLEL_PAGES);
+        }
+    }
+
+    private static PDType1Font customFont() throws IOException {
+        COSDictionary dictionary = new COSDictionary();
+        dictionary.setItem(COSName.TYPE, COSName.FONT);
+        dictionary.setItem(COSName.SUBTYPE, COSName.TYPE1);
+        dictionary.setName(COSName.BASE_FONT, "PdfQuill-Custom");
+        dictionary.setItem(COSName.ENCODING, COSName.WIN_ANSI_ENCODING);
+        return new PDType1Font(dictionary);
+    }
+
+    private static PageLayout customFontLayout(PDType1Font font) {
+        PageLayout layout = new PageLayout(PaperType.A4);
+        layout.getFontSettings().setDefaultFont(font);
+        layout.getFontSettings().loadFontMap();
+        return layout;
+    }
+
+    /**
+     * Returns the PDF as Latin-1 text without its trailer {@code /ID}, which PDFBox derives from the save time.
+     */
+    private static String withoutDocumentId(byte[] pdf) {
+        return new String(pdf, StandardCharsets.ISO_8859_1).replaceAll("/ID \\[<\\p{XDigit}+> <\\p{XDigit}+>\\]", "/ID");
+    }
+
+    private static List<String> encodeThreadNames(int parallelism) {
+        List<String> names = new ArrayList<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("pdf-quill-encode-" + parallelism + "-")) {
+                names.add(thread.getName());
+            }
+        }
+        return names;
+    }
+
+    @Test
+    void documentsShareOneEncodingPoolPerParallelism() throws Exception {
+        writeReport(new PDFWriter(new PageLayout(PaperType.A4), MemoryPolicy.heapOnly(), false, 3));
+        ForkJoinPool pool = DisplayListRenderer.encodePool(3);
+        writeReport(new PDFWriter(new PageLayout(PaperType.A4), MemoryPolicy.heapOnly(), false, 3));
+
+        assertThat(DisplayListRenderer.encodePool(3)).isSameAs(pool);
+        assertThat(pool.isShutdown()).isFalse();
+        assertThat(pool.getParallelism()).isEqualTo(3);
+        assertThat(DisplayListRenderer.batchSize(3)).isGreaterThanOrEqualTo(DisplayListRenderer.MIN_PARALLEL_PAGES);
+        assertThat(DisplayListRenderer.batchSize(1)).isEqualTo(1);
+    }
+
+    private static byte[] writeReport(PDFWriter writer) throws IOException {
+        return writeReport(writer, 10);
+    }
+
+    private static byte[] writeReport(PDFWriter writer, int pages) throws IOException {
+        BufferedImage logo = new BufferedImage(10, 10, BufferedImage.TYPE_INT_RGB);
+        logo.setRGB(3, 3, 0xFF0000);
+        BitMatrix matrix = new BitMatrix(4, 4);
+        matrix.setRegion(0, 0, 2, 4);
+        for (int page = 0; page < pages; page++) {
+            writer.writeImage(logo, 30, 30);
+            for (int line = 0; line < 30; line++) {
+                writer.writeLine("Page " + page + " line " + line, line % 5 == 0 ? FontType.BOLD : FontType.DEFAULT);
+            }
+            writer.writeBarcode(matrix, 40, 40);
+            if (page < pages - 1) {
+                writer.writeCutSignal();
+            }
+        }
+        return writer.saveAndGetBytes();
+    }
+
+    private static byte[] readContent(PDPage page) throws IOException {
+        try (java.io.InputStream in = page.getContents()) {
+            return org.apache.pdfbox.io.IOUtils.toByteArray(in);
+        }
+    }
+
+    private static long countOperators(PDFStreamParser parser, String name) {
+        return parser.getTokens().stream()
+                .filter(token -> token instanceof Operator && name.equals(((Operator) token).getName()))
+                .count();
+    }
+
     private static final class RecordingStripper extends PDFTextStripper {
         private final java.util.List<Float> yPositions = new java.util.ArrayList<>();
 